@@ -0,0 +1,68 @@
+package Controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Milliseconds per generation of Grid.step on large grids with the row rules reading whole rows (tileCols=0)
+ * against tiles of a few hundred or thousand columns (Grid.setTileColumns)
+ * Both simulations keep most cells changing, square Game of Life steps on the bit board whatever the layout
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LayoutBenchmark {
+    private static final long SEED = 308;
+
+    @Param({"RPS", "GameOfLife"})
+    private String simulation;
+
+    @Param({"SQUARE", "TRIANGLE", "HEXAGON"})
+    private CellShape shape;
+
+    @Param({"TOROIDAL"})
+    private EdgeType edgeType;
+
+    @Param({"COMPLETE"})
+    private NeighborhoodType neighborhood;
+
+    @Param({"8192"})
+    private int size;
+
+    @Param({"0", "256", "1024"})
+    private int tileCols;
+
+    private Grid myGrid;
+
+    //Fresh grid every iteration so every layout is measured from the same start
+    @Setup(Level.Iteration)
+    public void setUp(){
+        myGrid = new Grid(new Data(StepBenchmark.startingProbabilities(simulation), size, size, new Random(SEED)));
+        myGrid.fillCellGrid(simulation);
+        myGrid.setThreadCount(1);
+        myGrid.setTileColumns(tileCols);
+        myGrid.useNeighborhood(shape, edgeType, neighborhood);
+    }
+
+    @Benchmark
+    public Grid step(){
+        myGrid.step(shape, edgeType, neighborhood);
+        return myGrid;
+    }
+}
@@ -0,0 +1,90 @@
+package Controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generations per second of Grid.step for every simulation, cell shape, edge type and neighborhood
+ * One benchmark op is one generation, run with -prof gc to also get the allocation rate per generation
+ * Grids are square (size x size) and filled from a seeded Data so every run steps the same starting states
+ * engine=cells steps the same grid through the generic Cell object loop, so it is the baseline the specialized
+ * kernels (bit board, fire front, row rules picked per shape and neighborhood) are compared against
+ * The full parameter space is large, narrow it with -p (ex: -p simulation=GameOfLife -p size=256)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StepBenchmark {
+    private static final long SEED = 308;
+
+    @Param({"GameOfLife", "Fire", "Percolation", "RPS", "Segregation", "PredatorPrey"})
+    private String simulation;
+
+    @Param({"SQUARE", "TRIANGLE", "HEXAGON"})
+    private CellShape shape;
+
+    @Param({"FINITE", "TOROIDAL", "SEMITOROIDAL"})
+    private EdgeType edgeType;
+
+    @Param({"COMPLETE", "CARDINAL", "CORNER"})
+    private NeighborhoodType neighborhood;
+
+    @Param({"50", "256", "1024", "4096"})
+    private int size;
+
+    @Param({"1"})
+    private int threads;
+
+    @Param({"kernels", "cells"})
+    private String engine;
+
+    private Grid myGrid;
+
+    //Fresh grid every iteration so simulations that die out or settle (GameOfLife, Fire) are measured from the same start
+    @Setup(Level.Iteration)
+    public void setUp(){
+        myGrid = new Grid(new Data(startingProbabilities(simulation), size, size, new Random(SEED)));
+        myGrid.fillCellGrid(simulation);
+        myGrid.setThreadCount(threads);
+        if(engine.equals("cells")){
+            //Setting a Cell object keeps the grid on Cell objects from then on
+            myGrid.setCellAt(0, 0, myGrid.getCellAt(0, 0));
+        }
+        myGrid.useNeighborhood(shape, edgeType, neighborhood);
+    }
+
+    @Benchmark
+    public Grid step(){
+        myGrid.step(shape, edgeType, neighborhood);
+        return myGrid;
+    }
+
+    //Chance of each state in the starting grid, picked so every rule has something to do for a while
+    static double[] startingProbabilities(String simulation){
+        switch(simulation){
+            case "GameOfLife": return new double[]{0.7, 0.3};
+            case "Fire": return new double[]{0.1, 0.89, 0.01};
+            case "Percolation": return new double[]{0.4, 0.59, 0.01};
+            case "RPS": return new double[]{1.0 / 3, 1.0 / 3, 1.0 / 3};
+            case "Segregation": return new double[]{0.1, 0.45, 0.45};
+            case "PredatorPrey": return new double[]{0.5, 0.4, 0.1};
+            default: throw new SimulationException("Simulation type not found");
+        }
+    }
+}
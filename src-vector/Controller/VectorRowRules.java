@@ -0,0 +1,164 @@
+package Controller;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * jdk.incubator.vector versions of the SquareRowRules, one byte lane per cell (16 to 64 cells per instruction)
+ * Neighbor states are loaded as whole shifted vectors (one load per neighbor offset), counted into lanes
+ * and the rule is applied with compares and masked blends, no branches per cell
+ * Only compiled by the vector Maven profile, SquareRowRules finds this class by name and falls back to its
+ * scalar loops if it is missing or the JVM was started without --add-modules jdk.incubator.vector
+ */
+final class VectorRowRules {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int RPS_THRESHOLD = 3;
+    private static final int RPS_STATES = 3;
+
+    private VectorRowRules(){
+    }
+
+    /**
+     * Called through reflection by SquareRowRules.create
+     * @param simType
+     * @param rule
+     * @param offsets
+     * @return row rule, or null if the simulation has none
+     */
+    static RowRule create(String simType, LifeRule rule, int[] offsets){
+        RowRule scalar = SquareRowRules.createScalar(simType, rule, offsets);
+        if(scalar == null){
+            return null;
+        }
+        if("GAMEOFLIFE".equalsIgnoreCase(simType)){
+            return new LifeRow(SquareRowRules.born(rule), SquareRowRules.survive(rule), offsets, scalar);
+        }
+        else if("PERCOLATION".equalsIgnoreCase(simType)){
+            return new PercolationRow(offsets, scalar);
+        }
+        return new RPSRow(offsets, scalar);
+    }
+
+    //Counts whose entry is true, as a lane mask
+    private static VectorMask<Byte> countIn(ByteVector count, boolean[] table){
+        VectorMask<Byte> mask = SPECIES.maskAll(false);
+        for(int n = 0; n < table.length; n++){
+            if(table[n]){
+                mask = mask.or(count.eq((byte) n));
+            }
+        }
+        return mask;
+    }
+
+    private static class LifeRow implements RowRule {
+        private boolean[] myBorn;
+        private boolean[] mySurvive;
+        private boolean[] myDefaultBorn = SquareRowRules.defaultBorn();
+        private boolean[] myDefaultSurvive = SquareRowRules.defaultSurvive();
+        private int[] myOffsets;
+        private RowRule myTail;
+
+        LifeRow(boolean[] born, boolean[] survive, int[] offsets, RowRule tail){
+            myBorn = born;
+            mySurvive = survive;
+            myOffsets = offsets;
+            myTail = tail;
+        }
+
+        @Override
+        public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+            int bound = SPECIES.loopBound(length);
+            for(int k = 0; k < bound; k += SPECIES.length()){
+                int loc = from + k;
+                ByteVector state = ByteVector.fromArray(SPECIES, current, loc);
+                ByteVector live = ByteVector.zero(SPECIES);
+                VectorMask<Byte> odd = state.compare(VectorOperators.GT, (byte) 1);
+                for(int offset : myOffsets){
+                    ByteVector neighbor = ByteVector.fromArray(SPECIES, current, loc + offset);
+                    live = live.add((byte) 1, neighbor.eq((byte) 1));
+                    odd = odd.or(neighbor.compare(VectorOperators.GT, (byte) 1));
+                }
+                VectorMask<Byte> alive = state.eq((byte) 1);
+                VectorMask<Byte> born = countIn(live, myBorn).andNot(odd).or(countIn(live, myDefaultBorn).and(odd));
+                VectorMask<Byte> survive = countIn(live, mySurvive).andNot(odd).or(countIn(live, myDefaultSurvive).and(odd));
+                //Live cells: survive or die, everything else: born or keep its state
+                ByteVector result = state.blend((byte) 0, alive);
+                result = result.blend((byte) 1, alive.and(survive).or(born.andNot(alive)));
+                result.intoArray(next, to + k);
+            }
+            myTail.stepRow(current, from + bound, next, to + bound, length - bound);
+        }
+    }
+
+    private static class PercolationRow implements RowRule {
+        private int[] myOffsets;
+        private RowRule myTail;
+
+        PercolationRow(int[] offsets, RowRule tail){
+            myOffsets = offsets;
+            myTail = tail;
+        }
+
+        @Override
+        public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+            int bound = SPECIES.loopBound(length);
+            for(int k = 0; k < bound; k += SPECIES.length()){
+                int loc = from + k;
+                ByteVector state = ByteVector.fromArray(SPECIES, current, loc);
+                VectorMask<Byte> wet = SPECIES.maskAll(false);
+                for(int offset : myOffsets){
+                    wet = wet.or(ByteVector.fromArray(SPECIES, current, loc + offset).eq((byte) 2));
+                }
+                state.blend((byte) 2, wet.and(state.eq((byte) 1))).intoArray(next, to + k);
+            }
+            myTail.stepRow(current, from + bound, next, to + bound, length - bound);
+        }
+    }
+
+    //Per state: how many neighbors have it and the index of the last one, the qualifying state seen last wins
+    private static class RPSRow implements RowRule {
+        private int[] myOffsets;
+        private RowRule myTail;
+
+        RPSRow(int[] offsets, RowRule tail){
+            myOffsets = offsets;
+            myTail = tail;
+        }
+
+        @Override
+        public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+            int bound = SPECIES.loopBound(length);
+            ByteVector[] counts = new ByteVector[RPS_STATES];
+            ByteVector[] last = new ByteVector[RPS_STATES];
+            for(int k = 0; k < bound; k += SPECIES.length()){
+                int loc = from + k;
+                ByteVector state = ByteVector.fromArray(SPECIES, current, loc);
+                for(int s = 0; s < RPS_STATES; s++){
+                    counts[s] = ByteVector.zero(SPECIES);
+                    last[s] = ByteVector.broadcast(SPECIES, (byte) -1);
+                }
+                for(int n = 0; n < myOffsets.length; n++){
+                    ByteVector neighbor = ByteVector.fromArray(SPECIES, current, loc + myOffsets[n]);
+                    for(int s = 0; s < RPS_STATES; s++){
+                        VectorMask<Byte> same = neighbor.eq((byte) s);
+                        counts[s] = counts[s].add((byte) 1, same);
+                        last[s] = last[s].blend((byte) n, same);
+                    }
+                }
+                ByteVector result = state;
+                ByteVector best = ByteVector.broadcast(SPECIES, (byte) -1);
+                for(int s = 0; s < RPS_STATES; s++){
+                    VectorMask<Byte> wins = counts[s].compare(VectorOperators.GE, (byte) RPS_THRESHOLD)
+                            .andNot(state.eq((byte) s))
+                            .and(last[s].compare(VectorOperators.GT, best));
+                    result = result.blend((byte) s, wins);
+                    best = best.blend(last[s], wins);
+                }
+                result.intoArray(next, to + k);
+            }
+            myTail.stepRow(current, from + bound, next, to + bound, length - bound);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package Controller;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the cells that have to be evaluated next generation: cells whose own state or some neighbor's state changed
+ * Every other cell would see exactly the same states as last generation, and the synchronous rules only depend on
+ * those states, so it keeps its state without being evaluated
+ * Starts with every cell active, markAll goes back to that (new grid, rules or neighborhood)
+ */
+public class ActivityTracker {
+    //Once this share of the grid (1/4) is active a full sweep is cheaper than walking the list
+    private static final int FULL_SWEEP_DIVISOR = 4;
+
+    private boolean[] myMarked;
+    private int[] myActive;
+    private int mySize;
+    private boolean myAll = true;
+    private int[] myReverse = new int[0];
+
+    /**
+     * Constructor
+     * @param cells number of cells in the grid
+     */
+    public ActivityTracker(int cells){
+        myMarked = new boolean[cells];
+        myActive = new int[cells];
+    }
+
+    /**
+     * Every cell is evaluated next generation
+     */
+    public void markAll(){
+        myAll = true;
+    }
+
+    /**
+     * getter
+     * @return true if every cell has to be evaluated (the active list is not used)
+     */
+    public boolean isAll(){
+        return myAll;
+    }
+
+    /**
+     * Starts the active list of the next generation from the cells that changed in this one
+     * @param changes
+     * @param table
+     */
+    public void update(ChangeList changes, NeighborTable table){
+        if(myAll){
+            Arrays.fill(myMarked, false);
+        }
+        else{
+            for(int k = 0; k < mySize; k++){
+                myMarked[myActive[k]] = false;
+            }
+        }
+        mySize = 0;
+        myAll = false;
+        for(int k = 0; k < changes.size() && !myAll; k++){
+            markChanged(changes.getLocation(k), table);
+        }
+    }
+
+    /**
+     * Makes a location and every cell that has it as a neighbor active (used for steps and user clicks)
+     * @param location
+     * @param table
+     */
+    public void markChanged(int location, NeighborTable table){
+        if(myAll){
+            return;
+        }
+        if(myReverse.length < table.getMaxReverseNeighbors()){
+            myReverse = new int[table.getMaxReverseNeighbors()];
+        }
+        mark(location);
+        int count = table.getReverseNeighbors(location, myReverse);
+        for(int k = 0; k < count; k++){
+            mark(myReverse[k]);
+        }
+        if(mySize > myMarked.length / FULL_SWEEP_DIVISOR){
+            myAll = true;
+        }
+    }
+
+    /**
+     * getter
+     * @return number of active cells (only meaningful when isAll is false)
+     */
+    public int size(){
+        return mySize;
+    }
+
+    /**
+     * getter
+     * @return active locations, the first size() entries are used
+     */
+    public int[] getActive(){
+        return myActive;
+    }
+
+    private void mark(int location){
+        if(!myMarked[location]){
+            myMarked[location] = true;
+            myActive[mySize++] = location;
+        }
+    }
+}
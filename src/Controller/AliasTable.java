@@ -0,0 +1,75 @@
+package Controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * Walker's alias table: draws a state with the given probabilities in constant time
+ * (one column picked uniformly, then that column's own state or its alias), no walk over the probability array
+ * Built with Vose's method, probabilities are scaled by their sum so a sum a little off 1 does not matter
+ */
+class AliasTable {
+    private double[] myKeep;
+    private int[] myAlias;
+
+    /**
+     * Constructor
+     * @param probabilities one per state, not all 0
+     */
+    AliasTable(double[] probabilities){
+        int n = probabilities.length;
+        myKeep = new double[n];
+        myAlias = new int[n];
+        double sum = 0;
+        for(double p : probabilities){
+            sum += p;
+        }
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for(int k = 0; k < n; k++){
+            scaled[k] = probabilities[k] * n / sum;
+            if(scaled[k] < 1){
+                small[smallSize++] = k;
+            }
+            else{
+                large[largeSize++] = k;
+            }
+        }
+        while(smallSize > 0 && largeSize > 0){
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            myKeep[less] = scaled[less];
+            myAlias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if(scaled[more] < 1){
+                small[smallSize++] = more;
+            }
+            else{
+                large[largeSize++] = more;
+            }
+        }
+        //Whatever is left is 1 up to rounding
+        while(largeSize > 0){
+            int k = large[--largeSize];
+            myKeep[k] = 1;
+            myAlias[k] = k;
+        }
+        while(smallSize > 0){
+            int k = small[--smallSize];
+            myKeep[k] = 1;
+            myAlias[k] = k;
+        }
+    }
+
+    /**
+     * @param random
+     * @return a state, state k with probability probabilities[k] / sum
+     */
+    int sample(SplittableRandom random){
+        double x = random.nextDouble() * myKeep.length;
+        int column = (int) x;
+        return (x - column < myKeep[column]) ? column : myAlias[column];
+    }
+}
@@ -0,0 +1,35 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+
+    @Test
+    void drawsMatchProbabilities(){
+        double[] probabilities = {0.1, 0.0, 0.6, 0.3};
+        AliasTable table = new AliasTable(probabilities);
+        SplittableRandom random = new SplittableRandom(11);
+        int[] counts = new int[4];
+        for(int k = 0; k < 200000; k++){
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(0, counts[1]);
+        for(int state = 0; state < 4; state++){
+            assertEquals(probabilities[state], counts[state] / 200000.0, 0.01);
+        }
+    }
+
+    @Test
+    void singleState(){
+        AliasTable table = new AliasTable(new double[]{1.0});
+
+        var expected = 0;
+        var actual = table.sample(new SplittableRandom(1));
+        assertEquals(expected, actual);
+    }
+}
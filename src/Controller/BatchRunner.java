@@ -0,0 +1,316 @@
+package Controller;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.SplittableRandom;
+
+/**
+ * Runs a simulation without any JavaFX, as fast as the grid can step
+ * Loads the same Resources/*.properties + CSV configs as View.Main (through Data and Grid),
+ * steps N generations and writes the final states and the number of cells in each state per generation
+ *
+ * Usage: BatchRunner <properties name> <generations> [shape=SQUARE] [edge=TOROIDAL] [neighbors=COMPLETE] [threads=N] [out=DIR] [from=N] [seed=N] [analyze] [threshold=TRIALS]
+ * Shape, edge and neighbors default to the Style properties file, threads defaults to one per core
+ * from=N first jumps to generation N without recording counts (see Grid.advanceTo), then runs the given generations
+ * analyze runs a PercolationAnalyzer on the final board, threshold=TRIALS estimates the percolation threshold of the
+ * same shape, edge and neighborhood with that many Newman-Ziff trials
+ */
+public class BatchRunner {
+    private static final String DEFAULT_RESOURCE_PACKAGE = "Resources.";
+    private static final String USAGE = "Usage: BatchRunner <properties name> <generations> [shape=SQUARE] [edge=TOROIDAL] [neighbors=COMPLETE] [threads=N] [out=DIR] [from=N] [seed=N] [analyze] [threshold=TRIALS]";
+    private static final String COLOR_KEY = "Color";
+    private static final String RULE_KEY = "Rule";
+    private static final String SEED_KEY = "Seed";
+    private static final String ANALYZE_OPTION = "analyze";
+    private static final String COMMA_DELIMITER = ",";
+    private static final String NEW_LINE_SEPARATOR = "\n";
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private Grid myGrid;
+    private CellShape myShape;
+    private EdgeType myEdgeType;
+    private NeighborhoodType myNeighborhoodType;
+    private int myNumStates;
+    private List<int[]> myCounts = new ArrayList<>();
+    private long myRunNanos;
+    private long myFirstGeneration;
+
+    /**
+     * Constructor loads the config and fills the grid
+     * @param configName name of a properties file in Resources (ex: GameOfLife1)
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     * @param threads
+     */
+    public BatchRunner(String configName, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType, int threads){
+        ResourceBundle errorResources = ResourceBundle.getBundle(DEFAULT_RESOURCE_PACKAGE + "ErrorMessages");
+        ResourceBundle resources;
+        try{
+            resources = ResourceBundle.getBundle(DEFAULT_RESOURCE_PACKAGE + configName);
+            myGrid = new Grid(new Data(resources.getString("File")));
+            myGrid.fillCellGrid(resources.getString("Simulation"));
+            if(resources.containsKey(RULE_KEY)){
+                myGrid.setLifeRule(LifeRule.parse(resources.getString(RULE_KEY)));
+            }
+            if(resources.containsKey(SEED_KEY)){
+                myGrid.setSeed(parseLong(resources.getString(SEED_KEY)));
+            }
+        }catch(MissingResourceException e){
+            throw new SimulationException(errorResources.getString("MissingProperties"));
+        }
+        myGrid.setThreadCount(threads);
+        myShape = shape;
+        myEdgeType = edgeType;
+        myNeighborhoodType = neighborhoodType;
+        myNumStates = countColors(resources);
+    }
+
+    /**
+     * Steps the grid the given number of generations, recording state counts after every generation
+     * The first run also records the starting generation, later runs carry on from where the last one stopped
+     * @param generations
+     */
+    public void run(int generations){
+        if(myCounts.isEmpty()){
+            myFirstGeneration = myGrid.getGeneration();
+            myCounts.add(myGrid.getStateCounts(myNumStates));
+        }
+        myGrid.useNeighborhood(myShape, myEdgeType, myNeighborhoodType);
+        long start = System.nanoTime();
+        for(int gen = 0; gen < generations; gen++){
+            myGrid.step(myShape, myEdgeType, myNeighborhoodType);
+            myCounts.add(myGrid.getStateCounts(myNumStates));
+        }
+        myRunNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Moves the grid straight to the given generation, counts are only recorded by run
+     * @param generation
+     */
+    public void advanceTo(long generation){
+        myGrid.advanceTo(generation, myShape, myEdgeType, myNeighborhoodType);
+    }
+
+    /**
+     * Writes one line per generation: generation number followed by the count of each state
+     * @param file
+     */
+    public void writeCounts(File file){
+        int width = myNumStates;
+        for(int[] counts : myCounts){
+            width = Math.max(width, counts.length);
+        }
+        try(BufferedWriter writer = new BufferedWriter(new FileWriter(file))){
+            writer.write("Generation");
+            for(int s = 0; s < width; s++){
+                writer.write(COMMA_DELIMITER + "State" + s);
+            }
+            writer.write(NEW_LINE_SEPARATOR);
+            for(int gen = 0; gen < myCounts.size(); gen++){
+                writer.write(Long.toString(myFirstGeneration + gen));
+                int[] counts = myCounts.get(gen);
+                for(int s = 0; s < width; s++){
+                    writer.write(COMMA_DELIMITER);
+                    writer.write(Integer.toString(s < counts.length ? counts[s] : 0));
+                }
+                writer.write(NEW_LINE_SEPARATOR);
+            }
+        }catch(IOException e){
+            throw new SimulationException(e, "Could not write %s", file.getPath());
+        }
+    }
+
+    /**
+     * Writes the final states in the same CSV layout Data reads (so the result can be loaded as a new config)
+     * @param file
+     */
+    public void writeFinalStates(File file){
+        try(BufferedWriter writer = new BufferedWriter(new FileWriter(file))){
+            writer.write(myGrid.getMyRows() + COMMA_DELIMITER + myGrid.getMyCols() + NEW_LINE_SEPARATOR);
+            for(int i = 0; i < myGrid.getMyRows(); i++){
+                for(int j = 0; j < myGrid.getMyCols(); j++){
+                    if(j > 0){
+                        writer.write(COMMA_DELIMITER);
+                    }
+                    writer.write(Integer.toString(myGrid.getCellState(i, j)));
+                }
+                writer.write(NEW_LINE_SEPARATOR);
+            }
+        }catch(IOException e){
+            throw new SimulationException(e, "Could not write %s", file.getPath());
+        }
+    }
+
+    /**
+     * Writes whether the current board percolates, the size of the spanning cluster and how many clusters
+     * there are of each size (sizes with no clusters are left out)
+     * @param file
+     */
+    public void writeAnalysis(File file){
+        PercolationAnalyzer analyzer = makeAnalyzer();
+        analyzer.analyze(myGrid);
+        int[] clusters = analyzer.getClusterSizeCounts();
+        try(BufferedWriter writer = new BufferedWriter(new FileWriter(file))){
+            writer.write("Percolates" + COMMA_DELIMITER + analyzer.percolates() + NEW_LINE_SEPARATOR);
+            writer.write("SpanningSize" + COMMA_DELIMITER + analyzer.getSpanningSize() + NEW_LINE_SEPARATOR);
+            writer.write("ClusterSize" + COMMA_DELIMITER + "Clusters" + NEW_LINE_SEPARATOR);
+            for(int size = 1; size < clusters.length; size++){
+                if(clusters[size] > 0){
+                    writer.write(size + COMMA_DELIMITER + clusters[size] + NEW_LINE_SEPARATOR);
+                }
+            }
+        }catch(IOException e){
+            throw new SimulationException(e, "Could not write %s", file.getPath());
+        }
+    }
+
+    /**
+     * Writes the percolation threshold estimated on a board of the same size, shape, edge and neighborhood,
+     * drawing from the grid's random numbers so seed=N repeats the estimate
+     * @param file
+     * @param trials
+     */
+    public void writeThreshold(File file, int trials){
+        SplittableRandom random = myGrid.getRandom();
+        double threshold = makeAnalyzer().estimateThreshold(trials, random);
+        try(BufferedWriter writer = new BufferedWriter(new FileWriter(file))){
+            writer.write("Trials" + COMMA_DELIMITER + "Threshold" + NEW_LINE_SEPARATOR);
+            writer.write(trials + COMMA_DELIMITER + threshold + NEW_LINE_SEPARATOR);
+        }catch(IOException e){
+            throw new SimulationException(e, "Could not write %s", file.getPath());
+        }
+    }
+
+    /**
+     * getter
+     * @return grid being stepped
+     */
+    public Grid getGrid(){
+        return myGrid;
+    }
+
+    /**
+     * getter
+     * @return generations per second over every run so far (stepping and counting only)
+     */
+    public double getGenerationsPerSecond(){
+        return (myCounts.size() - 1) * NANOS_PER_SECOND / Math.max(1, myRunNanos);
+    }
+
+    private PercolationAnalyzer makeAnalyzer(){
+        return new PercolationAnalyzer(myGrid.getMyRows(), myGrid.getMyCols(), myShape, myEdgeType, myNeighborhoodType);
+    }
+
+    //Number of states is the number of colors the config defines (same as Main uses)
+    private int countColors(ResourceBundle resources){
+        int colors = 0;
+        for(String key : resources.keySet()){
+            if(key.contains(COLOR_KEY)){
+                colors++;
+            }
+        }
+        return Math.max(colors, 1);
+    }
+
+    public static void main(String[] args){
+        if(args.length < 2){
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        try{
+            ResourceBundle style = ResourceBundle.getBundle(DEFAULT_RESOURCE_PACKAGE + "Style");
+            CellShape shape = parseEnum(CellShape.class, style.getString("CellShape"));
+            EdgeType edgeType = parseEnum(EdgeType.class, style.getString("EdgeType"));
+            NeighborhoodType neighborhoodType = parseEnum(NeighborhoodType.class, style.getString("NeighborType"));
+            int threads = Runtime.getRuntime().availableProcessors();
+            File outputDir = new File(".");
+            long from = 0;
+            Long seed = null;
+            boolean isAnalyzing = false;
+            int thresholdTrials = 0;
+            for(int k = 2; k < args.length; k++){
+                if(args[k].equalsIgnoreCase(ANALYZE_OPTION)){
+                    isAnalyzing = true;
+                    continue;
+                }
+                String[] option = args[k].split("=", 2);
+                if(option.length != 2){
+                    throw new SimulationException(USAGE);
+                }
+                switch(option[0].toLowerCase(Locale.ROOT)){
+                    case "shape": shape = parseEnum(CellShape.class, option[1]); break;
+                    case "edge": edgeType = parseEnum(EdgeType.class, option[1]); break;
+                    case "neighbors": neighborhoodType = parseEnum(NeighborhoodType.class, option[1]); break;
+                    case "threads": threads = parseNumber(option[1]); break;
+                    case "out": outputDir = new File(option[1]); break;
+                    case "from": from = parseLong(option[1]); break;
+                    case "seed": seed = parseLong(option[1]); break;
+                    case "threshold":
+                        thresholdTrials = parseNumber(option[1]);
+                        if(thresholdTrials < 1){
+                            throw new SimulationException(USAGE);
+                        }
+                        break;
+                    default: throw new SimulationException(USAGE);
+                }
+            }
+            int generations = parseNumber(args[1]);
+            if(generations < 0 || threads < 1){
+                throw new SimulationException(USAGE);
+            }
+            BatchRunner runner = new BatchRunner(args[0], shape, edgeType, neighborhoodType, threads);
+            if(seed != null){
+                runner.getGrid().setSeed(seed);
+            }
+            runner.advanceTo(from);
+            runner.run(generations);
+            outputDir.mkdirs();
+            runner.writeCounts(new File(outputDir, args[0] + "_counts.csv"));
+            runner.writeFinalStates(new File(outputDir, args[0] + "_final.csv"));
+            if(isAnalyzing){
+                runner.writeAnalysis(new File(outputDir, args[0] + "_analysis.csv"));
+            }
+            if(thresholdTrials > 0){
+                runner.writeThreshold(new File(outputDir, args[0] + "_threshold.csv"), thresholdTrials);
+            }
+            System.out.println(String.format("%s: %d generations of %dx%d in %.3f s (%.1f generations/s)", args[0], generations,
+                    runner.getGrid().getMyRows(), runner.getGrid().getMyCols(), runner.myRunNanos / NANOS_PER_SECOND, runner.getGenerationsPerSecond()));
+        }catch(SimulationException | MissingResourceException e){
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static <T extends Enum<T>> T parseEnum(Class<T> type, String value){
+        try{
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        }catch(IllegalArgumentException e){
+            throw new SimulationException("Invalid %s", type.getSimpleName() + " " + value);
+        }
+    }
+
+    private static long parseLong(String value){
+        try{
+            return Long.parseLong(value.trim());
+        }catch(NumberFormatException e){
+            throw new SimulationException("Not a number: %s", value);
+        }
+    }
+
+    private static int parseNumber(String value){
+        try{
+            return Integer.parseInt(value.trim());
+        }catch(NumberFormatException e){
+            throw new SimulationException("Not a number: %s", value);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package Controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+    private Path myDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        myDir = Files.createTempDirectory("BatchRunnerTest");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for(File file : myDir.toFile().listFiles()){
+            Files.delete(file.toPath());
+        }
+        Files.delete(myDir);
+    }
+
+    //GameOfLife4 is a vertical blinker in the middle of a 5x5 grid, 3 cells alive every generation
+    BatchRunner blinker(){
+        return new BatchRunner("GameOfLife4", CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE, 1);
+    }
+
+    List<String> writtenCounts(BatchRunner runner) throws IOException {
+        File file = myDir.resolve("counts.csv").toFile();
+        runner.writeCounts(file);
+        return Files.readAllLines(file.toPath());
+    }
+
+    @Test
+    void countsEveryGeneration() throws IOException {
+        BatchRunner runner = blinker();
+        runner.run(2);
+
+        var expected = List.of("Generation,State0,State1", "0,22,3", "1,22,3", "2,22,3");
+        var actual = writtenCounts(runner);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void repeatedRunsContinueCounts() throws IOException {
+        BatchRunner runner = blinker();
+        runner.run(1);
+        runner.run(2);
+
+        var expected = List.of("Generation,State0,State1", "0,22,3", "1,22,3", "2,22,3", "3,22,3");
+        var actual = writtenCounts(runner);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void finalStatesAreFlippedBlinker() throws IOException {
+        BatchRunner runner = blinker();
+        runner.run(1);
+        File file = myDir.resolve("final.csv").toFile();
+        runner.writeFinalStates(file);
+
+        var expected = List.of("5,5", "0,0,0,0,0", "0,0,0,0,0", "0,1,1,1,0", "0,0,0,0,0", "0,0,0,0,0");
+        var actual = Files.readAllLines(file.toPath());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void analysisOfBlinker() throws IOException {
+        BatchRunner runner = blinker();
+        runner.run(1);
+        File file = myDir.resolve("analysis.csv").toFile();
+        runner.writeAnalysis(file);
+
+        var expected = List.of("Percolates,false", "SpanningSize,0", "ClusterSize,Clusters", "3,1");
+        var actual = Files.readAllLines(file.toPath());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void thresholdRepeatsWithSeed() throws IOException {
+        File first = myDir.resolve("first.csv").toFile();
+        File second = myDir.resolve("second.csv").toFile();
+        for(File file : new File[]{first, second}){
+            BatchRunner runner = blinker();
+            runner.getGrid().setSeed(7);
+            runner.writeThreshold(file, 20);
+        }
+
+        var actual = Files.readAllLines(first.toPath());
+        assertEquals(List.of("Trials,Threshold"), actual.subList(0, 1));
+        assertEquals(actual, Files.readAllLines(second.toPath()));
+        double threshold = Double.parseDouble(actual.get(1).split(",")[1]);
+        assertTrue(threshold > 0 && threshold <= 1);
+    }
+
+    @Test
+    void missingConfig(){
+        assertThrows(SimulationException.class, () -> new BatchRunner("NotAConfig", CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE, 1));
+    }
+}
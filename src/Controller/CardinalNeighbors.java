@@ -1,7 +1,5 @@
 package Controller;
 
-import Model.Cell;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,24 +19,33 @@ public class CardinalNeighbors extends Neighbors {
         super(x, y, grid, shape, edgeType);
     }
 
+    /**
+     * Constructor used by NeighborTable, only needs the grid dimensions
+     * @param x
+     * @param y
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param edgeType
+     */
+    public CardinalNeighbors(int x, int y, int rows, int cols, CellShape shape, EdgeType edgeType) {
+        super(x, y, rows, cols, shape, edgeType);
+    }
+
     /**
      * Finds cardinal cell neighbors for square cell shapes (directly up/down, left/right)
      * Uses edgeCheck helper method in abstract class Cells (correct neighbors for desired edgeType)
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> squareNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> squareNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
         for (int i = myX - LOWER_BOUND; i < myX + UPPER_BOUND; i++) {
             for (int j = myY - LOWER_BOUND; j < myY + UPPER_BOUND; j++) {
                 if ((i != myX || j != myY) && (i==myX || j==myY)) {
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if (temp != null) {
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -49,22 +56,18 @@ public class CardinalNeighbors extends Neighbors {
      * For upsideDown triangle cells loop through row above and below
      * Loop through columns 2 to the left and 2 to the right for furthest neighbors
      * Uses edgeCheck helper method in abstract cells class
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> upsideDownNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> upsideDownNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for(int i=myX-LOWER_BOUND; i<myX+LOWER_BOUND; i++){
             for(int j=myY-LOWER_BOUND; j<myY+UPPER_BOUND; j++){
                 if((i!=myX || j!=myY) && (i!=myX-1 || j==myY)){
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if(temp!=null){
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -76,22 +79,18 @@ public class CardinalNeighbors extends Neighbors {
      * For rightSideUp triangle cells loop through row above and below
      * Loop through columns 2 to the left and 2 to the right for furthest neighbors
      * Uses edgeCheck helper method in abstract cells class
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> rightSideUpNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> rightSideUpNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for(int i=myX; i<myX+UPPER_BOUND; i++){
             for(int j=myY-LOWER_BOUND; j<myY+UPPER_BOUND; j++){
                 if((i!=myX || j!=myY) && (i!=myX+1 || j==myY)){
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if(temp!=null){
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
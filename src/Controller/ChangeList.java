@@ -0,0 +1,70 @@
+package Controller;
+
+import java.util.Arrays;
+
+/**
+ * Locations whose state changed in the last generation, filled by Grid.step and read by the view
+ * so only those cells get repainted
+ * Reused every generation (no allocation once it has grown to the busiest generation seen)
+ */
+public class ChangeList {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] myLocations = new int[INITIAL_CAPACITY];
+    private int mySize;
+    private int myCols;
+
+    /**
+     * Constructor
+     * @param cols number of columns of the grid, used to turn flat locations back into rows and columns
+     */
+    public ChangeList(int cols){
+        myCols = cols;
+    }
+
+    void clear(){
+        mySize = 0;
+    }
+
+    void add(int location){
+        if(mySize == myLocations.length){
+            myLocations = Arrays.copyOf(myLocations, mySize * 2);
+        }
+        myLocations[mySize++] = location;
+    }
+
+    /**
+     * getter
+     * @return number of changed cells
+     */
+    public int size(){
+        return mySize;
+    }
+
+    /**
+     * getter
+     * @param index
+     * @return flat location (row * cols + col) of the changed cell
+     */
+    public int getLocation(int index){
+        return myLocations[index];
+    }
+
+    /**
+     * getter
+     * @param index
+     * @return row of the changed cell
+     */
+    public int getRow(int index){
+        return myLocations[index] / myCols;
+    }
+
+    /**
+     * getter
+     * @param index
+     * @return column of the changed cell
+     */
+    public int getCol(int index){
+        return myLocations[index] % myCols;
+    }
+}
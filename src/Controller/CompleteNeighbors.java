@@ -1,7 +1,5 @@
 package Controller;
 
-import Model.Cell;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,25 +25,34 @@ public class CompleteNeighbors extends Neighbors {
         super(x, y, grid, shape, edgeType);
     }
 
+    /**
+     * Constructor used by NeighborTable, only needs the grid dimensions
+     * @param x
+     * @param y
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param edgeType
+     */
+    public CompleteNeighbors(int x, int y, int rows, int cols, CellShape shape, EdgeType edgeType) {
+        super(x, y, rows, cols, shape, edgeType);
+    }
+
     /**
      * Get all neighbors for square cells
      * Use edgeCheck helper method in cell abstract class
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> squareNeighbors(Grid cellGrid, int myX, int myY) {
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> squareNeighbors(int myX, int myY) {
+        List<Integer> neighbors = new ArrayList<>();
 
         for (int i = myX - LOWER_BOUND_SQUARE; i < myX + UPPER_BOUND_SQUARE; i++) {
             for (int j = myY - LOWER_BOUND_SQUARE; j < myY + UPPER_BOUND_SQUARE; j++) {
                 if (i != myX || j != myY) {
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if (temp != null) {
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -56,22 +63,18 @@ public class CompleteNeighbors extends Neighbors {
      * Finds upsideDown triangle neighbors looping through rows and columns
      * Checks if location should be counted based on r,c indices
      * Uses edgeCheck helper method
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> upsideDownNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> upsideDownNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for(int i=myX-LOWER_BOUND_TRI; i<myX+MID_BOUND_TRI; i++){
             for(int j=myY-MID_BOUND_TRI; j<myY+UPPER_BOUND_TRI; j++){
                 if((i!=myX || j!=myY) && (i!=myX+1 || (j!=myY-2 && j!=myY+2))){
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if(temp!=null){
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -83,22 +86,18 @@ public class CompleteNeighbors extends Neighbors {
      * Finds right side up triangle neighbors
      * loops through rows and columns checking if location should be included
      * Uses edgeCheck helper method
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> rightSideUpNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> rightSideUpNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for(int i=myX-LOWER_BOUND_TRI; i<myX+MID_BOUND_TRI; i++){
             for(int j=myY-MID_BOUND_TRI; j<myY+UPPER_BOUND_TRI; j++){
                 if((i!=myX || j!=myY) && (i!=myX-1 ||(j!=myY-2 && j!=myY+2))){
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if(temp!=null){
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
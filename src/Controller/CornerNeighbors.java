@@ -1,7 +1,5 @@
 package Controller;
 
-import Model.Cell;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,24 +24,33 @@ public class CornerNeighbors extends Neighbors {
         super(x, y, grid, shape, edgeType);
     }
 
+    /**
+     * Constructor used by NeighborTable, only needs the grid dimensions
+     * @param x
+     * @param y
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param edgeType
+     */
+    public CornerNeighbors(int x, int y, int rows, int cols, CellShape shape, EdgeType edgeType) {
+        super(x, y, rows, cols, shape, edgeType);
+    }
+
     /**
      * Finds all corner neighbors for square cells
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> squareNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> squareNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for (int i = myX - LOWER_BOUND_SQUARE; i < myX + UPPER_BOUND_SQUARE; i++) {
             for (int j = myY - LOWER_BOUND_SQUARE; j < myY + UPPER_BOUND_SQUARE; j++) {
                 if (i != myX && j != myY) {
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if (temp != null) {
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -52,23 +59,19 @@ public class CornerNeighbors extends Neighbors {
 
     /**
      * Loops through rows and cols and determines cells to be included in corner neighborhood
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> upsideDownNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> upsideDownNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for(int i=myX-LOWER_BOUND_TRI; i<myX+MID_BOUND_TRI; i++){
             for(int j=myY-MID_BOUND_TRI; j<myY+UPPER_BOUND_TRI; j++){
                 //Use helper method because logic statement is long
                 if(upsideDownHelper(i, j, myX, myY)){
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if(temp!=null){
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -78,23 +81,19 @@ public class CornerNeighbors extends Neighbors {
 
     /**
      * Loops through rows and cols and determines cells to be included in corner neighborhood
-     * @param cellGrid
      * @param myX
      * @param myY
-     * @return array of cells that are this cell's neighbors
+     * @return flat grid locations of this cell's neighbors
      */
     @Override
-    public List<Cell> rightSideUpNeighbors(Grid cellGrid, int myX, int myY){
-        List<Cell> neighbors = new ArrayList<>();
+    public List<Integer> rightSideUpNeighbors(int myX, int myY){
+        List<Integer> neighbors = new ArrayList<>();
 
         for(int i=myX-LOWER_BOUND_TRI; i<myX+MID_BOUND_TRI; i++){
             for(int j=myY-MID_BOUND_TRI; j<myY+UPPER_BOUND_TRI; j++){
                 //Use helper method because logic statement is long
                 if(rightSideUpHelper(i, j, myX, myY)){
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if(temp!=null){
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
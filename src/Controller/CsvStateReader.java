@@ -0,0 +1,160 @@
+package Controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ResourceBundle;
+
+/**
+ * Reads a configuration CSV (header line "height,width" then one line of states per row) straight from a stream
+ * Reads the stream in large blocks and parses digits by hand, so no String is made per value
+ * Values may have spaces around them and lines may end in \r\n, lines after the last row are ignored
+ * Malformed files throw a SimulationException giving the line and column (both counted from 1) of the problem
+ */
+class CsvStateReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int END_OF_INPUT = -1;
+
+    private InputStream myInput;
+    private ResourceBundle myErrors;
+    private byte[] myBuffer = new byte[BUFFER_SIZE];
+    private int myPosition;
+    private int myLimit;
+    private int myLine = 1;
+    private int myColumn = 1;
+
+    /**
+     * Constructor
+     * @param input stream positioned at the start of the file (caller closes it)
+     * @param errors ErrorMessages bundle
+     */
+    CsvStateReader(InputStream input, ResourceBundle errors){
+        myInput = input;
+        myErrors = errors;
+    }
+
+    /**
+     * Reads the header line
+     * @return {height, width}
+     * @throws IOException
+     */
+    int[] readHeader() throws IOException {
+        if(peek() == END_OF_INPUT){
+            throw new SimulationException(myErrors.getString("CSVStates"));
+        }
+        int height = readValue(Integer.MAX_VALUE);
+        expect(',');
+        int width = readValue(Integer.MAX_VALUE);
+        endLine(2, 2);
+        if(height == 0 || width == 0 || (long) height * width > Integer.MAX_VALUE){
+            throw new SimulationException(myErrors.getString("InvalidCells"));
+        }
+        return new int[]{height, width};
+    }
+
+    /**
+     * Reads height rows of exactly width states each into a row major array
+     * @param height
+     * @param width
+     * @return states, the state of (row, col) is at row * width + col
+     * @throws IOException
+     */
+    byte[] readStates(int height, int width) throws IOException {
+        byte[] states = new byte[height * width];
+        for(int row = 0; row < height; row++){
+            if(peek() == END_OF_INPUT){
+                throw new SimulationException(myErrors.getString("CSVRowsMissing"), height, myLine);
+            }
+            int count = 0;
+            while(true){
+                int value = readValue(Byte.MAX_VALUE);
+                if(count < width){
+                    states[row * width + count] = (byte) value;
+                }
+                count++;
+                if(peek() != ','){
+                    break;
+                }
+                next();
+            }
+            endLine(count, width);
+        }
+        return states;
+    }
+
+    //Digits with optional spaces around them, anything else is reported where it starts
+    private int readValue(int maximum) throws IOException {
+        skipSpaces();
+        int line = myLine;
+        int column = myColumn;
+        int c = peek();
+        if(c < '0' || c > '9'){
+            throw new SimulationException(myErrors.getString("CSVParseAt"), line, column);
+        }
+        long value = 0;
+        while(c >= '0' && c <= '9'){
+            value = Math.min(value * 10 + (c - '0'), (long) Integer.MAX_VALUE + 1);
+            next();
+            c = peek();
+        }
+        skipSpaces();
+        if(value > maximum){
+            throw new SimulationException(myErrors.getString("CSVStateRange"), line, column, maximum);
+        }
+        return (int) value;
+    }
+
+    private void expect(char delimiter) throws IOException {
+        if(peek() != delimiter){
+            throw new SimulationException(myErrors.getString("CSVParseAt"), myLine, myColumn);
+        }
+        next();
+    }
+
+    //A line has to end (new line or end of file) right after its last value
+    private void endLine(int count, int expected) throws IOException {
+        int c = peek();
+        if(c == ','){
+            throw new SimulationException(myErrors.getString("CSVRowLength"), myLine, count + 1, expected);
+        }
+        if(c != '\n' && c != END_OF_INPUT){
+            throw new SimulationException(myErrors.getString("CSVParseAt"), myLine, myColumn);
+        }
+        if(count != expected){
+            throw new SimulationException(myErrors.getString("CSVRowLength"), myLine, count, expected);
+        }
+        if(c == '\n'){
+            next();
+        }
+    }
+
+    private void skipSpaces() throws IOException {
+        int c = peek();
+        while(c == ' ' || c == '\t' || c == '\r'){
+            next();
+            c = peek();
+        }
+    }
+
+    private int peek() throws IOException {
+        if(myPosition == myLimit){
+            myLimit = myInput.read(myBuffer, 0, myBuffer.length);
+            myPosition = 0;
+            if(myLimit <= 0){
+                myLimit = 0;
+                return END_OF_INPUT;
+            }
+        }
+        return myBuffer[myPosition] & 0xFF;
+    }
+
+    private void next(){
+        if(myBuffer[myPosition] == '\n'){
+            myLine++;
+            myColumn = 1;
+        }
+        else{
+            myColumn++;
+        }
+        myPosition++;
+    }
+}
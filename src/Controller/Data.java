@@ -1,47 +1,49 @@
 package Controller;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.net.URISyntaxException;
-import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
 import java.util.ResourceBundle;
-import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 public class Data {
 
+    //Probabilities like 0.1 + 0.2 + 0.7 do not add to exactly 1 in floating point
+    private static final double PROBABILITY_TOLERANCE = 1e-9;
+    //Random boards are filled in blocks of whole rows of about this many cells, each block with its own stream
+    private static final int BLOCK_CELLS = 1 << 16;
+
     private int height, width;
-    private int[][] states;
+    //Row major, state of (i, j) is at i * width + j
+    private byte[] states;
     private ResourceBundle myResources = ResourceBundle.getBundle("Resources.ErrorMessages");
 
     /**
      * Constructs a Data object with height, width, and states based on the name of a CSV file
+     * Line 1 + i of the file is row i of the grid, value j on that line is column j
      * @param fileName
      */
 
     public Data(String fileName) {
-        try {
-            Scanner scanner = new Scanner(new File(this.getClass().getClassLoader().getResource(fileName).toURI()));
-            scanner.useDelimiter(",|\\n");
-            height = Integer.parseInt(scanner.next().trim());
-            width = Integer.parseInt(scanner.next().trim());
-            states = new int[height][width];
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    int state = Integer.parseInt(scanner.next().trim());
-                    states[j][i] = state;
-                }
-            }
-        } catch (NumberFormatException e){
-            throw new SimulationException(myResources.getString("CSVParse"));
-        } catch (NoSuchElementException e){
-            throw new SimulationException(myResources.getString("CSVStates"));
-        } catch (FileNotFoundException e) {
-            throw new SimulationException(myResources.getString("NoFile"));
-        } catch (URISyntaxException e) {
-            throw new SimulationException(myResources.getString("NotReadable"));
-        } catch (NullPointerException e){
+        if(fileName == null){
             throw new SimulationException(myResources.getString("NullPoint"));
         }
+        if(fileName.isEmpty()){
+            throw new SimulationException(myResources.getString("NoFile"));
+        }
+        try (InputStream input = this.getClass().getClassLoader().getResourceAsStream(fileName)) {
+            if(input == null){
+                throw new SimulationException(myResources.getString("NoFile"));
+            }
+            CsvStateReader reader = new CsvStateReader(input, myResources);
+            int[] size = reader.readHeader();
+            height = size[0];
+            width = size[1];
+            states = reader.readStates(height, width);
+        } catch (IOException e) {
+            throw new SimulationException(e, myResources.getString("NotReadable"));
+        }
     }
 
     /**
@@ -52,23 +54,37 @@ public class Data {
      */
 
     public Data (double prob[], int height, int width){
+        this(prob, height, width, new Random());
+    }
+
+    /**
+     * Same as the probability constructor but draws from the given generator, so a seeded Random always gives the same grid
+     * Each cell is drawn from an alias table in constant time, blocks of rows are filled in parallel with one stream per
+     * block (taken from a RandomStreams seeded by the generator), so the grid does not depend on the number of threads
+     * @param prob
+     * @param height
+     * @param width
+     * @param random
+     */
+
+    public Data (double prob[], int height, int width, Random random){
         this.height = height;
         this.width = width;
-        if(getDoubleSum(prob)!=1){
+        if(Math.abs(getDoubleSum(prob) - 1) > PROBABILITY_TOLERANCE){
             throw new SimulationException(myResources.getString("ProbabilityError"));
         }
-        states = new int[height][width];
-        for(int i = 0; i<height; i++){
-            for(int j = 0; j<width; j++){
-                double rand = Math.random();
-                for(int k = 0; k<prob.length; k++){
-                    if(rand<prob[k] & rand>=0) {
-                        states[j][i] = k;
-                    }
-                    rand -= prob[k];
-                }
+        states = new byte[height * width];
+        AliasTable table = new AliasTable(prob);
+        RandomStreams streams = new RandomStreams(random.nextLong());
+        int rowsPerBlock = Math.max(1, BLOCK_CELLS / Math.max(1, width));
+        int blocks = (height + rowsPerBlock - 1) / rowsPerBlock;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            SplittableRandom stream = streams.stream(block);
+            int end = Math.min(height, (block + 1) * rowsPerBlock) * width;
+            for(int loc = block * rowsPerBlock * width; loc < end; loc++){
+                states[loc] = (byte) table.sample(stream);
             }
-        }
+        });
     }
 
     /**
@@ -79,42 +95,74 @@ public class Data {
      */
 
     public Data(int limits[], int height, int width) throws SimulationException{
+        this(limits, height, width, new Random());
+    }
+
+    /**
+     * Same as the cell count constructor but draws from the given generator, so a seeded Random always gives the same grid
+     * Cells are filled in order, each drawing a state in proportion to how many of it are left, which shuffles the
+     * available cells exactly (no re-rolling) in O(cells * states), limits itself is not changed
+     * @param limits
+     * @param height
+     * @param width
+     * @param random
+     */
+
+    public Data(int limits[], int height, int width, Random random) throws SimulationException{
         this.height = height;
         this.width = width;
         //test if less entries in limits than in grid
         if(getIntSum(limits)<height*width){
             throw new SimulationException(myResources.getString("InvalidCells"));
         }
-        states = new int[height][width];
-        for (int i = 0; i<height; i++){
-            for(int j = 0; j<width; j++){
-                int state = randomState(limits);
-                states[j][i] = state;
-                limits[state]--;
+        states = new byte[height * width];
+        long[] left = new long[limits.length];
+        long total = 0;
+        for(int k = 0; k < limits.length; k++){
+            left[k] = Math.max(0, limits[k]);
+            total += left[k];
+        }
+        SplittableRandom stream = new SplittableRandom(random.nextLong());
+        for(int loc = 0; loc < states.length; loc++){
+            long pick = stream.nextLong(total);
+            int state = 0;
+            while(pick >= left[state]){
+                pick -= left[state];
+                state++;
             }
+            states[loc] = (byte) state;
+            left[state]--;
+            total--;
         }
     }
 
-    private int getIntSum(int limits[]){
-        int sum = 0;
+    private long getIntSum(int limits[]){
+        long sum = 0;
         for(int i: limits){
             sum+=i;
         }
         return sum;
     }
 
-    private int getDoubleSum(double prob[]){
-        int sum = 0;
+    private double getDoubleSum(double prob[]){
+        double sum = 0;
         for(double i: prob){
             sum+=i;
         }
         return sum;
     }
 
-    private int randomState(int limits[]){
-        int state = (int)(Math.random()*limits.length);
-        if(limits[state]>0) return state;
-        else return randomState(limits);
+
+    /**
+     * Constructs a Data object around states that were already read (snapshots)
+     * @param height
+     * @param width
+     * @param states row major states, not copied
+     */
+    Data(int height, int width, byte[] states){
+        this.height = height;
+        this.width = width;
+        this.states = states;
     }
 
     /**
@@ -133,10 +181,10 @@ public class Data {
 
     /**
      * Returns the value stored at a certain point (i, j) in the array
-     * @param i
-     * @param j
+     * @param i row
+     * @param j column
      */
     public int getStateAt(int i, int j){
-        return states[i][j];
+        return states[i * width + j];
     }
 }
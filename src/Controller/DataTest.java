@@ -5,12 +5,19 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.ResourceBundle;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DataTest {
     private final String TEST_FILE = "DataTest_Config_1.csv";
     private final String EMPTY_FILE = "DataTest_Config_2.csv";
     private final String LETTER_FILE = "DataTest_Config_3.csv";
+    private final String WIDE_FILE = "DataTest_Config_4.csv";
+    private final String SHORT_ROW_FILE = "DataTest_Config_5.csv";
     private Data d, f;
 
     @BeforeEach
@@ -87,4 +94,70 @@ class DataTest {
     void checkProbabilityException(){
         Assertions.assertThrows(SimulationException.class, () -> new Data(new double[]{0.1}, 5, 5));
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkSeededProbabilitiesRepeat(){
+        Data first = new Data(new double[]{0.3, 0.6, 0.1}, 6, 6, new Random(7));
+        Data second = new Data(new double[]{0.3, 0.6, 0.1}, 6, 6, new Random(7));
+        for(int i = 0; i < 6; i++){
+            for(int j = 0; j < 6; j++){
+                assertEquals(first.getStateAt(i, j), second.getStateAt(i, j));
+            }
+        }
+    }
+
+    @Test
+    void checkNonSquareFile(){
+        Data wide = new Data(WIDE_FILE);
+        assertEquals(2, wide.getHeight());
+        assertEquals(3, wide.getWidth());
+        assertEquals(2, wide.getStateAt(0, 2));
+        assertEquals(0, wide.getStateAt(1, 2));
+    }
+
+    @Test
+    void checkShortRowPosition(){
+        SimulationException e = Assertions.assertThrows(SimulationException.class, () -> new Data(SHORT_ROW_FILE));
+        assertEquals("CSV Configuration File line 3 has 2 values, expected 3", e.getMessage());
+    }
+
+    @Test
+    void checkLetterPosition(){
+        SimulationException e = Assertions.assertThrows(SimulationException.class, () -> new Data(LETTER_FILE));
+        assertEquals("CSV Configuration File contains a non-integer at line 1, column 1", e.getMessage());
+    }
+
+    @Test
+    void checkWindowsLineEndings() throws IOException {
+        CsvStateReader reader = new CsvStateReader(new ByteArrayInputStream("2,2\r\n1,0\r\n0,2\r\n".getBytes()), ResourceBundle.getBundle("Resources.ErrorMessages"));
+        assertArrayEquals(new int[]{2, 2}, reader.readHeader());
+        assertArrayEquals(new byte[]{1, 0, 0, 2}, reader.readStates(2, 2));
+    }
+
+    @Test
+    void checkLargeCountsAreExact(){
+        int[] limits = {40000, 20000, 30000};
+        Data big = new Data(limits, 300, 300, new Random(3));
+        int[] counts = new int[3];
+        for(int i = 0; i < 300; i++){
+            for(int j = 0; j < 300; j++){
+                counts[big.getStateAt(i, j)]++;
+            }
+        }
+        assertArrayEquals(new int[]{40000, 20000, 30000}, counts);
+        assertArrayEquals(new int[]{40000, 20000, 30000}, limits);
+    }
+
+    @Test
+    void checkProbabilitiesSpanBlocks(){
+        //Wide enough rows that the grid is filled in several blocks
+        Data big = new Data(new double[]{0.25, 0.75}, 400, 1000, new Random(5));
+        int alive = 0;
+        for(int i = 0; i < 400; i++){
+            for(int j = 0; j < 1000; j++){
+                alive += big.getStateAt(i, j);
+            }
+        }
+        assertEquals(0.75, alive / 400000.0, 0.01);
+    }
+}
@@ -2,8 +2,13 @@ package Controller;
 
 import javafx.scene.paint.Color;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 
 
@@ -13,9 +18,10 @@ public class FileCreator {
     private static final String COMMA_DELIMITER = ",";
     private static final String EQUALS_DELIMITER = "=";
     private static final String NEW_LINE_SEPARATOR = "\n";
-    private static final String DATA_EXTENSION = "data\\";
-    private static final String RESOURCES_EXTENSION = "src\\Resources\\";
+    private static final String DATA_FOLDER = "data";
+    private static final String RESOURCES_FOLDER = Paths.get("src", "Resources").toString();
     private static final String ERROR_MSG = "Error saving your simulation";
+    private static final String INVALID_NAME_CHARACTERS = "\\/:*?\"<>|";
 
     /**
      * Writes a CSV file name fileName based on a Grid whose state values it stores
@@ -24,19 +30,23 @@ public class FileCreator {
      */
     public static void writeCsvFile(String fileName, Grid g) throws SimulationException {
 
-        FileWriter fileWriter = null;
+        checkFileName(fileName);
+        if(g == null){
+            throw new SimulationException(ERROR_MSG);
+        }
+        Writer fileWriter = null;
         try {
-            fileWriter = new FileWriter(String.format("%s%s%s", DATA_EXTENSION, fileName, ".csv"));
+            fileWriter = new BufferedWriter(new FileWriter(csvPath(fileName).toFile()));
             //Add a new line separator after the header
-            fileWriter.append(g.getMyRows() + "");
+            fileWriter.append(Integer.toString(g.getMyRows()));
             fileWriter.append(COMMA_DELIMITER);
-            fileWriter.append(g.getMyCols() + "");
+            fileWriter.append(Integer.toString(g.getMyCols()));
             fileWriter.append(NEW_LINE_SEPARATOR);
 
-            //Write a new student object list to the CSV file
+            //Write one line of states per row of the grid
             for(int i=0; i<g.getMyRows(); i++){
                 for(int j = 0;j<g.getMyCols(); j++){
-                    fileWriter.append(g.getCellState(j, i) + "");
+                    writeState(fileWriter, g.getCellState(i, j));
                     if(!(j==g.getMyCols()-1)) fileWriter.append(COMMA_DELIMITER);
                 }
                 fileWriter.append(NEW_LINE_SEPARATOR);
@@ -60,9 +70,25 @@ public class FileCreator {
      */
 
     public static void writePropertiesFile(String fileName, String CsvFile, String Simulation, Map<Integer, Color> cellColors) throws SimulationException{
-        FileWriter fileWriter = null;
+        writePropertiesFile(fileName, CsvFile, Simulation, cellColors, null);
+    }
+
+    /**
+     * Same as above, also writes the Rule key when the grid runs a Life-like rule
+     * @param fileName
+     * @param CsvFile
+     * @param Simulation
+     * @param cellColors
+     * @param rule may be null
+     */
+    public static void writePropertiesFile(String fileName, String CsvFile, String Simulation, Map<Integer, Color> cellColors, LifeRule rule) throws SimulationException{
+        checkFileName(fileName);
+        if(cellColors == null){
+            throw new SimulationException(ERROR_MSG);
+        }
+        Writer fileWriter = null;
         try{
-            fileWriter = new FileWriter(String.format("%s%s%s", RESOURCES_EXTENSION, fileName, ".properties"));
+            fileWriter = new BufferedWriter(new FileWriter(propertiesPath(fileName).toFile()));
             fileWriter.append(String.format("%s%s%s", "Simulation", EQUALS_DELIMITER,  Simulation));
             fileWriter.append(NEW_LINE_SEPARATOR);
             fileWriter.append(String.format("%s%s", "Name", EQUALS_DELIMITER));
@@ -71,6 +97,10 @@ public class FileCreator {
             fileWriter.append(NEW_LINE_SEPARATOR);
             fileWriter.append(String.format("%s%s%s%s", "File",  EQUALS_DELIMITER, CsvFile, ".csv"));
             fileWriter.append(NEW_LINE_SEPARATOR);
+            if(rule != null){
+                fileWriter.append(String.format("%s%s%s", "Rule", EQUALS_DELIMITER, rule));
+                fileWriter.append(NEW_LINE_SEPARATOR);
+            }
             for(Map.Entry<Integer, Color> entry: cellColors.entrySet()){
                 fileWriter.append(String.format("%s%s%s%s%s#%s", "Color", entry.getKey(), EQUALS_DELIMITER, entry.getKey(), COMMA_DELIMITER, entry.getValue().toString().substring(2,8).toUpperCase()));
                 fileWriter.append(NEW_LINE_SEPARATOR);
@@ -84,7 +114,101 @@ public class FileCreator {
         }
     }
 
-    private static void closeWriter(FileWriter fileWriter){
+    /**
+     * Writes a binary snapshot of the grid (see Snapshot) next to the CSV files
+     * @param fileName
+     * @param g
+     * @param simulation
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     */
+    public static void writeSnapshotFile(String fileName, Grid g, String simulation, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType) throws SimulationException {
+        checkFileName(fileName);
+        Snapshot.write(snapshotPath(fileName), g, simulation, shape, edgeType, neighborhoodType);
+    }
+
+    /**
+     * getter
+     * @param fileName
+     * @return where writeSnapshotFile puts the snapshot with this name
+     */
+    public static Path snapshotPath(String fileName){
+        return Paths.get(DATA_FOLDER, fileName + Snapshot.EXTENSION);
+    }
+
+    /**
+     * getter
+     * @param fileName
+     * @return where writeCsvFile puts the CSV with this name
+     */
+    public static Path csvPath(String fileName){
+        return Paths.get(DATA_FOLDER, fileName + ".csv");
+    }
+
+    /**
+     * getter
+     * @param fileName
+     * @return where writePropertiesFile puts the properties with this name
+     */
+    public static Path propertiesPath(String fileName){
+        return Paths.get(RESOURCES_FOLDER, fileName + ".properties");
+    }
+
+    /**
+     * A saved simulation should load from its snapshot only when neither its CSV nor its properties were edited after it
+     * @param fileName
+     * @return true if the snapshot with this name exists and is at least as new as the CSV and properties with this name
+     */
+    public static boolean isSnapshotCurrent(String fileName){
+        return isNewest(snapshotPath(fileName), csvPath(fileName), propertiesPath(fileName));
+    }
+
+    /**
+     * @param file
+     * @param others files that may not exist
+     * @return true if file exists and was not modified before any of the others that exist
+     */
+    public static boolean isNewest(Path file, Path... others){
+        try{
+            if(!Files.exists(file)){
+                return false;
+            }
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            for(Path other : others){
+                if(Files.exists(other) && Files.getLastModifiedTime(other).toMillis() > modified){
+                    return false;
+                }
+            }
+            return true;
+        }catch(IOException e){
+            return false;
+        }
+    }
+
+    //States are almost always one digit, those skip making a String
+    private static void writeState(Writer fileWriter, int state) throws IOException {
+        if(state >= 0 && state < 10){
+            fileWriter.write('0' + state);
+        }
+        else{
+            fileWriter.write(Integer.toString(state));
+        }
+    }
+
+    //Not every file system rejects these names itself (linux allows new lines and backslashes)
+    private static void checkFileName(String fileName){
+        if(fileName == null){
+            throw new SimulationException(ERROR_MSG);
+        }
+        for(char c : fileName.toCharArray()){
+            if(Character.isISOControl(c) || INVALID_NAME_CHARACTERS.indexOf(c) >= 0){
+                throw new SimulationException(ERROR_MSG);
+            }
+        }
+    }
+
+    private static void closeWriter(Writer fileWriter){
         try {
             fileWriter.flush();
             fileWriter.close();
@@ -4,6 +4,10 @@ import javafx.scene.paint.Color;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,5 +52,26 @@ class FileCreatorTest {
         assertThrows(SimulationException.class, () ->FileCreator.writePropertiesFile(fileName, fileName, Simulation, null));
     }
 
+    //A CSV edited after the snapshot was saved has to win over the snapshot
+    @Test
+    public void snapshotOlderThanEditIsNotNewest() throws IOException {
+        Path snapshot = Files.createTempFile("FileCreatorTest", Snapshot.EXTENSION);
+        Path csv = Files.createTempFile("FileCreatorTest", ".csv");
+        try{
+            Files.setLastModifiedTime(snapshot, FileTime.fromMillis(1000000));
+            Files.setLastModifiedTime(csv, FileTime.fromMillis(2000000));
+            assertFalse(FileCreator.isNewest(snapshot, csv));
+
+            Files.setLastModifiedTime(snapshot, FileTime.fromMillis(3000000));
+            assertTrue(FileCreator.isNewest(snapshot, csv, csv.resolveSibling("NotThere.properties")));
+        }finally{
+            Files.deleteIfExists(snapshot);
+            Files.deleteIfExists(csv);
+        }
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void missingSnapshotIsNotNewest(){
+        assertFalse(FileCreator.isNewest(Path.of("NotThere" + Snapshot.EXTENSION)));
+    }
+}
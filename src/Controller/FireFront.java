@@ -0,0 +1,107 @@
+package Controller;
+
+/**
+ * Fire rules of FireCell driven by the burning front instead of a sweep over the grid
+ * A tree catches fire exactly when one of its neighbors is burning, so the next front is the trees among the cells
+ * that have a burning cell as a neighbor (reverse neighbor table), and the old front burns out to empty
+ * A generation costs the front length times the neighborhood size, cells away from the fire are never looked at
+ * States other than empty, tree and burning go to empty on the first step, like FireCell
+ */
+class FireFront {
+    private static final int EMPTY = 0;
+    private static final int TREE = 1;
+    private static final int BURNING = 2;
+
+    private byte[] myStates;
+    private int[] myFront;
+    private int myFrontSize;
+    private int[] myNextFront;
+    private int[] myStale;
+    private int myStaleSize;
+    private int[] myReverse = new int[0];
+    private ChangeList myChanges;
+
+    /**
+     * Constructor finds the burning cells
+     * @param states current state of every location, copied
+     * @param cols
+     */
+    FireFront(byte[] states, int cols){
+        myStates = states.clone();
+        myFront = new int[states.length];
+        myNextFront = new int[states.length];
+        myStale = new int[states.length];
+        myChanges = new ChangeList(cols);
+        for(int loc = 0; loc < states.length; loc++){
+            if(states[loc] == BURNING){
+                myFront[myFrontSize++] = loc;
+            }
+            else if(states[loc] != EMPTY && states[loc] != TREE){
+                myStale[myStaleSize++] = loc;
+            }
+        }
+    }
+
+    /**
+     * Runs one generation
+     * @param table
+     */
+    void step(NeighborTable table){
+        if(myReverse.length < table.getMaxReverseNeighbors()){
+            myReverse = new int[table.getMaxReverseNeighbors()];
+        }
+        myChanges.clear();
+        int nextSize = 0;
+        //Marked burning right away so a tree next to two burning cells joins the next front once,
+        //the loop only spreads from the old front so new fires do not spread in the same generation
+        for(int k = 0; k < myFrontSize; k++){
+            int count = table.getReverseNeighbors(myFront[k], myReverse);
+            for(int r = 0; r < count; r++){
+                int loc = myReverse[r];
+                if(myStates[loc] == TREE){
+                    myStates[loc] = BURNING;
+                    myNextFront[nextSize++] = loc;
+                    myChanges.add(loc);
+                }
+            }
+        }
+        for(int k = 0; k < myFrontSize; k++){
+            myStates[myFront[k]] = EMPTY;
+            myChanges.add(myFront[k]);
+        }
+        for(int k = 0; k < myStaleSize; k++){
+            myStates[myStale[k]] = EMPTY;
+            myChanges.add(myStale[k]);
+        }
+        myStaleSize = 0;
+        int[] temp = myFront;
+        myFront = myNextFront;
+        myNextFront = temp;
+        myFrontSize = nextSize;
+    }
+
+    /**
+     * getter
+     * @return locations changed by the last step
+     */
+    ChangeList getChanges(){
+        return myChanges;
+    }
+
+    /**
+     * getter
+     * @param location
+     * @return state of the location after the last step
+     */
+    int getState(int location){
+        return myStates[location];
+    }
+
+    /**
+     * getter
+     * @return number of burning cells
+     */
+    int getFrontSize(){
+        return myFrontSize;
+    }
+}
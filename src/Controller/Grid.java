@@ -2,126 +2,734 @@ package Controller;
 
 import Model.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.MissingResourceException;
+import java.util.SplittableRandom;
+import java.util.ResourceBundle;
+import java.util.function.IntUnaryOperator;
 
 public class Grid {
-    private Data myData;
+    private static final String SIMULATION_INFO = "Resources.SimulationInfo";
+    private static final int STATE_VALUES = 1 << Byte.SIZE;
+
+    private StateBuffer myStates;
     private Cell[][] myCellGrid;
+    private String mySimType;
     private int myRows;
     private int myCols;
+    private NeighborTable myNeighborTable;
+    private int[] myNeighborLocations;
+    private List<Cell> myNeighborCells = new ArrayList<>();
+    private RuleKernel myKernel;
+    private ParallelStepper myStepper;
+    private boolean myKernelsReady;
+    private int myTileCols;
+    private ChangeList myChanges;
+    private ActivityTracker myActivity;
+    private long myGeneration;
+    private LifeBitBoard myLifeBoard;
+    private boolean isLifeBoardRejected;
+    private HashLife myHashLife;
+    private LifeRule myLifeRule;
+    private IndexedCellSet myEmptyCells;
+    private SatisfactionTracker mySatisfaction;
+    private ChangeList myMoves;
+    private MoveSink myMoveSink = this::recordMove;
+    private int[] myCounts = new int[Byte.MAX_VALUE + 1];
+    private int[] myStateCounts = new int[STATE_VALUES];
+    private RandomStreams myStreams = new RandomStreams();
+    private SplittableRandom myRandom;
+    private WaTorAgents myAgents;
+    private FireFront myFire;
 
     /**
      * Constructor only needs data to fill grid
+     * States are copied into primitive double buffers, no Cell objects are made here
      * @param dat
      */
     public Grid(Data dat){
-        myData = dat;
-        myRows = myData.getHeight();
-        myCols = myData.getWidth();
-        myCellGrid = new Cell[myRows][myCols];
+        myRows = dat.getHeight();
+        myCols = dat.getWidth();
+        myStates = new StateBuffer(myRows, myCols);
+        myChanges = new ChangeList(myCols);
+        myMoves = new ChangeList(myCols);
+        myActivity = new ActivityTracker(myRows * myCols);
+        myStateCounts[0] = myRows * myCols;
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myCols; j++) {
+                myStates.set(i * myCols + j, dat.getStateAt(i, j));
+                countChange(0, myStates.getCurrent(i * myCols + j));
+            }
+        }
     }
 
     /**
-     * Called by main to fill cell grid getting info from data
+     * Called by main to pick the simulation rules for the grid
+     * Synchronous rules (each cell only writes its own next state) run straight off the state buffers,
+     * Segregation cells move around so it still gets one Cell object per location,
+     * PredatorPrey keeps its fish and sharks in a WaTorAgents list next to the state buffer
      * Uses helper method simCellPicker to select right type of concrete cell class to initialize
      * @param simType
      */
     public void fillCellGrid(String simType){
-        //myCellGrid = new Cell[myRows][myCols];
+        simCellPicker(simType, 0, 0, 0);
+        mySimType = simType;
+        myKernelsReady = false;
+        myActivity.markAll();
+        myLifeBoard = null;
+        isLifeBoardRejected = false;
+        myHashLife = null;
+        myLifeRule = null;
+        myEmptyCells = null;
+        mySatisfaction = null;
+        myAgents = null;
+        myFire = null;
+        if(usesCellObjects(simType)){
+            myCellGrid = new Cell[myRows][myCols];
+            for (int i = 0; i < myRows; i++) {
+                for (int j = 0; j < myCols; j++) {
+                    myCellGrid[i][j] = simCellPicker(simType, i, j, myStates.getCurrent(i * myCols + j));
+                }
+            }
+        }
+        else{
+            myCellGrid = null;
+        }
+    }
+
+    /**
+     * Called by main step method, moves every cell in the grid to its next state
+     * Buffer backed grids write every next state (split over threads if setThreadCount asked for more than 1)
+     * and then swap buffers (no separate reset pass)
+     * Only cells whose state or neighborhood changed last generation are evaluated, the rest keep their state
+     * Game of Life on squares with the complete neighborhood (and only states 0 and 1) runs on a LifeBitBoard
+     * instead, 64 cells at a time on one thread
+     * Fire only visits the burning front and the cells next to it (FireFront)
+     * PredatorPrey only visits its fish and sharks, in shuffled order, each acts at most once
+     * Segregation only visits the agents that are unhappy when the step starts (kept by a SatisfactionTracker),
+     * in row major order, each moves once if it is still unhappy when its turn comes
+     * Afterwards getChangedCells holds every location whose state is different from before the step
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     */
+    public void step(CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        useNeighborhood(shape, edgeType, neighborhoodType);
+        myGeneration++;
+        myRandom = null;
+        if(usesLifeBoard(shape, edgeType, neighborhoodType)){
+            myEmptyCells = null;
+            myLifeBoard.step();
+            myLifeBoard.findChanges(myStates, myChanges);
+            //The bit board only holds 0 and 1, so every change flipped one into the other
+            for(int k = 0; k < myChanges.size(); k++){
+                int state = myStates.getCurrent(myChanges.getLocation(k));
+                countChange(1 - state, state);
+            }
+        }
+        else if(myCellGrid == null && "FIRE".equalsIgnoreCase(mySimType)){
+            myEmptyCells = null;
+            if(myFire == null){
+                myFire = new FireFront(myStates.currentArray(), myCols);
+            }
+            myFire.step(myNeighborTable);
+            findEngineChanges(myFire.getChanges(), myFire::getState);
+        }
+        else if(myCellGrid == null && "PREDATORPREY".equalsIgnoreCase(mySimType)){
+            myEmptyCells = null;
+            if(myAgents == null){
+                myAgents = new WaTorAgents(myStates.currentArray(), myCols);
+            }
+            myMoves.clear();
+            myAgents.step(myNeighborTable, getRandom(), myMoveSink);
+            findEngineChanges(myMoves, myAgents::getState);
+        }
+        else if(myCellGrid == null){
+            //Buffer steps do not report moves, the empty cell index is rebuilt if it is asked for again
+            myEmptyCells = null;
+            if(!myKernelsReady){
+                prepareKernels(shape);
+            }
+            if(myActivity.isAll()){
+                stepAllCells(shape);
+                myStates.swap();
+                findBufferChanges();
+            }
+            else{
+                stepActiveCells(shape);
+                myStates.swap();
+                findActiveChanges();
+            }
+            myActivity.update(myChanges, myNeighborTable);
+        }
+        else if("SEGREGATION".equalsIgnoreCase(mySimType)){
+            stepSegregation();
+        }
+        else{
+            for (int i = 0; i < myRows; i++) {
+                for (int j = 0; j < myCols; j++) {
+                    updateGridCell(i, j, shape);
+                }
+            }
+            for (int i = 0; i < myRows; i++) {
+                for (int j = 0; j < myCols; j++) {
+                    myCellGrid[i][j].resetState();
+                }
+            }
+            findCellChanges();
+        }
+    }
+
+    /**
+     * Steps until getGeneration() reaches the given generation
+     * Game of Life on a toroidal square grid whose sides are powers of two (and only states 0 and 1) jumps there
+     * on a HashLife quadtree, which keeps its remembered patterns between calls, anything else steps one generation at a time
+     * Afterwards getChangedCells holds every location whose state is different from before the call
+     * @param generation
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     */
+    public void advanceTo(long generation, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        if(generation < myGeneration){
+            throw new SimulationException("Cannot go back from generation %d to generation %d", myGeneration, generation);
+        }
+        if(generation - myGeneration <= 1){
+            if(generation > myGeneration){
+                step(shape, edgeType, neighborhoodType);
+            }
+            return;
+        }
+        byte[] before = new byte[myRows * myCols];
+        copyStates(before);
+        if(usesHashLife(shape, edgeType, neighborhoodType, before)){
+            myHashLife.advance(generation - myGeneration);
+            byte[] after = new byte[myRows * myCols];
+            myHashLife.copyStates(after);
+            for(int loc = 0; loc < after.length; loc++){
+                if(after[loc] != before[loc]){
+                    countChange(before[loc], after[loc]);
+                    myStates.set(loc, after[loc]);
+                }
+            }
+            useNeighborhood(shape, edgeType, neighborhoodType);
+            myLifeBoard = null;
+            myEmptyCells = null;
+            myActivity.markAll();
+            myGeneration = generation;
+        }
+        else{
+            while(myGeneration < generation){
+                step(shape, edgeType, neighborhoodType);
+            }
+        }
+        myChanges.clear();
+        for(int i = 0; i < myRows; i++){
+            for(int j = 0; j < myCols; j++){
+                if(getCellState(i, j) != before[i * myCols + j]){
+                    myChanges.add(i * myCols + j);
+                }
+            }
+        }
+    }
+
+    //Loaded from the current states every call, nodes (and their results) from earlier calls are still shared
+    private boolean usesHashLife(CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType, byte[] states){
+        if(myCellGrid != null || !"GAMEOFLIFE".equalsIgnoreCase(mySimType) || shape != CellShape.SQUARE
+                || edgeType != EdgeType.TOROIDAL || neighborhoodType != NeighborhoodType.COMPLETE
+                || !HashLife.supports(myRows, myCols)){
+            return false;
+        }
+        if(myHashLife == null){
+            myHashLife = new HashLife(squareLifeRule().getBorn(), squareLifeRule().getSurvive());
+        }
+        return myHashLife.load(states, myRows, myCols);
+    }
+
+    /**
+     * getter
+     * @return locations that changed state in the last step (user clicks through updateCellState are not included)
+     */
+    public ChangeList getChangedCells(){
+        return myChanges;
+    }
+
+    //Made the first time a matching step runs, dropped (back to the general path) as soon as the setup stops matching
+    private boolean usesLifeBoard(CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        if(myCellGrid != null || !"GAMEOFLIFE".equalsIgnoreCase(mySimType) || shape != CellShape.SQUARE
+                || neighborhoodType != NeighborhoodType.COMPLETE){
+            dropLifeBoard();
+            return false;
+        }
+        if(myLifeBoard == null){
+            if(isLifeBoardRejected){
+                return false;
+            }
+            myLifeBoard = new LifeBitBoard(myRows, myCols, edgeType, squareLifeRule().getBorn(), squareLifeRule().getSurvive());
+            if(!myLifeBoard.load(myStates.currentArray())){
+                myLifeBoard = null;
+                isLifeBoardRejected = true;
+                return false;
+            }
+        }
+        else if(!myLifeBoard.matches(edgeType)){
+            myLifeBoard.setEdgeType(edgeType);
+        }
+        return true;
+    }
+
+    //The state buffer is kept up to date every step, only the activity tracker needs to start over
+    private void dropLifeBoard(){
+        if(myLifeBoard != null){
+            myLifeBoard = null;
+            myActivity.markAll();
+        }
+    }
+
+    private void stepAllCells(CellShape shape){
+        if(myStepper == null){
+            myKernel.stepRows(this, myNeighborTable, myStates, shape, 0, myRows);
+        }
+        else{
+            myStepper.step(this, myNeighborTable, myStates, shape);
+        }
+    }
+
+    //Skipped cells did not change last generation either, so their next buffer entry already holds their current state
+    private void stepActiveCells(CellShape shape){
+        if(myStepper == null){
+            myKernel.stepCells(this, myNeighborTable, myStates, shape, myActivity.getActive(), 0, myActivity.size());
+        }
+        else{
+            myStepper.stepCells(this, myNeighborTable, myStates, shape, myActivity.getActive(), myActivity.size());
+        }
+    }
+
+    //Only active cells can have changed
+    private void findActiveChanges(){
+        byte[] current = myStates.currentArray();
+        byte[] previous = myStates.nextArray();
+        int[] active = myActivity.getActive();
+        myChanges.clear();
+        for(int k = 0; k < myActivity.size(); k++){
+            if(current[active[k]] != previous[active[k]]){
+                countChange(previous[active[k]], current[active[k]]);
+                myChanges.add(active[k]);
+            }
+        }
+    }
+
+    //After the swap the next buffer still holds the generation before this step
+    private void findBufferChanges(){
+        byte[] current = myStates.currentArray();
+        byte[] previous = myStates.nextArray();
+        myChanges.clear();
+        for(int loc = 0; loc < current.length; loc++){
+            if(current[loc] != previous[loc]){
+                countChange(previous[loc], current[loc]);
+                myChanges.add(loc);
+            }
+        }
+    }
+
+    //Same moves SegregationCell.updateCell makes, driven by the unhappy set instead of visiting every cell
+    private void stepSegregation(){
+        if(mySatisfaction == null || !mySatisfaction.matches(myNeighborTable)){
+            findCellChanges();
+            mySatisfaction = new SatisfactionTracker(myStates.currentArray(), myNeighborTable);
+        }
+        if(myEmptyCells == null){
+            indexEmptyCells();
+        }
+        myMoves.clear();
+        mySatisfaction.step(myEmptyCells, getRandom(), myMoveSink);
+        findEngineChanges(myMoves, mySatisfaction::getState);
+    }
+
+    //Agent engines report every move here, a location can be reported more than once
+    private void recordMove(int from, int to){
+        myMoves.add(from);
+        if(to != from){
+            myMoves.add(to);
+        }
+    }
+
+    //Copies the engine's state of every reported location into the state buffer (and the Cell objects if there are any)
+    private void findEngineChanges(ChangeList reported, IntUnaryOperator engineState){
+        myChanges.clear();
+        for(int k = 0; k < reported.size(); k++){
+            int loc = reported.getLocation(k);
+            int state = engineState.applyAsInt(loc);
+            if(state != myStates.getCurrent(loc)){
+                countChange(myStates.getCurrent(loc), state);
+                myStates.set(loc, state);
+                myChanges.add(loc);
+                if(myCellGrid != null){
+                    myCellGrid[loc / myCols][loc % myCols].setMyCurrentState(state);
+                    myCellGrid[loc / myCols][loc % myCols].setMyNextState(state);
+                }
+            }
+        }
+    }
+
+    //Cell object grids keep the last reported state of every location in the state buffer to compare against
+    private void findCellChanges(){
+        myChanges.clear();
         for (int i = 0; i < myRows; i++) {
             for (int j = 0; j < myCols; j++) {
-                myCellGrid[i][j] = simCellPicker(simType, i, j);
+                int state = myCellGrid[i][j].getMyCurrentState();
+                if(state != myStates.getCurrent(i * myCols + j)){
+                    countChange(myStates.getCurrent(i * myCols + j), state);
+                    myStates.set(i * myCols + j, state);
+                    myChanges.add(i * myCols + j);
+                }
             }
         }
     }
 
     /**
-     * Called by main step method updates cells in grid to new states every step
-     * Calls neighbor classes and cell classes in backend to update themselves and front end gets results
-     * @param row
-     * @param col
+     * Builds the neighbor table for this combination, only if it differs from the one already built
+     * Called by main when the user changes shape, edge or neighborhood and by step
      * @param shape
      * @param edgeType
      * @param neighborhoodType
      */
-    public void updateGridCell(int row, int col, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
-        Neighbors n = neighborhoodPicker(row, col, shape, edgeType, neighborhoodType);
-        List<Cell> newCells = myCellGrid[row][col].updateCell(n.getMyNeighbors(), this, shape);
+    public void useNeighborhood(CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        if(myNeighborTable == null || !myNeighborTable.matches(shape, edgeType, neighborhoodType)){
+            myNeighborTable = new NeighborTable(myRows, myCols, shape, edgeType, neighborhoodType);
+            myNeighborLocations = new int[myNeighborTable.getMaxNeighbors()];
+            myKernelsReady = false;
+            myActivity.markAll();
+        }
+    }
+
+    /**
+     * Sets how many threads step buffer backed grids, 1 steps on the calling thread
+     * Segregation (Cell objects) and PredatorPrey (agent list) always step on the calling thread
+     * @param threads
+     */
+    public void setThreadCount(int threads){
+        if(myStepper != null && (threads <= 1 || myStepper.getThreads() != threads)){
+            myStepper.shutdown();
+            myStepper = null;
+        }
+        if(threads > 1 && myStepper == null){
+            myStepper = new ParallelStepper(threads);
+        }
+        myKernelsReady = false;
+    }
+
+    /**
+     * Sets how row rules lay out the states they read: whole rows (the default) or tiles of at most tileCols columns,
+     * stepped tile by tile so very wide grids keep each tile and its neighbors in cache
+     * @param tileCols even, 0 for whole rows
+     */
+    public void setTileColumns(int tileCols){
+        if(tileCols < 0 || tileCols % 2 != 0){
+            throw new SimulationException("Tile columns must be even and not negative, not %d", tileCols);
+        }
+        myTileCols = tileCols;
+        myKernelsReady = false;
+    }
+
+    /**
+     * Replaces the Game of Life rules (for every cell shape) with a Life-like rule, ex: from the Rule key of a properties file
+     * Lasts until the next fillCellGrid
+     * @param rule null goes back to the built in rules
+     */
+    public void setLifeRule(LifeRule rule){
+        if(rule != null && !"GAMEOFLIFE".equalsIgnoreCase(mySimType)){
+            throw new SimulationException("Rule %s only applies to GameOfLife, not %s", rule, mySimType);
+        }
+        myLifeRule = rule;
+        myKernelsReady = false;
+        myLifeBoard = null;
+        myHashLife = null;
+        myActivity.markAll();
+    }
+
+    /**
+     * getter
+     * @return Life-like rule set with setLifeRule, null when the built in rules are used
+     */
+    public LifeRule getLifeRule(){
+        return myLifeRule;
+    }
+
+    //Rule used by the bit packed and HashLife engines (both only run square cells)
+    private LifeRule squareLifeRule(){
+        if(myLifeRule != null){
+            return myLifeRule;
+        }
+        return new LifeRule(new int[]{GameOfLifeCell.SQUARE_REVIVE},
+                new int[]{GameOfLifeCell.SQUARE_SURVIVE1, GameOfLifeCell.SQUARE_SURVIVE2});
+    }
+
+    //Kernels hold flyweight cells of the simulation type sized for the neighbor table, so remake them when either changes
+    private void prepareKernels(CellShape shape){
+        RuleTable table = compileRuleTable(shape);
+        int tileCols = (myTileCols == 0) ? myCols : Math.min(myCols, myTileCols);
+        RowRule[] rowRules = createRowRules(shape, table, tileCols);
+        if(myStepper == null){
+            myKernel = new RuleKernel(() -> simCellPicker(mySimType, 0, 0, 0), myNeighborTable.getMaxNeighbors(), table, rowRules, tileCols);
+        }
+        else{
+            myStepper.prepare(() -> simCellPicker(mySimType, 0, 0, 0), myNeighborTable.getMaxNeighbors(), myRows, table, rowRules, tileCols);
+        }
+        myKernelsReady = true;
+    }
+
+    //Picked once per (simulation, shape, neighborhood): square Game of Life, Percolation and RPS have their own row rules,
+    //everything else with a rule table gets a table row rule for each row parity (hexagons and triangles alternate)
+    private RowRule[] createRowRules(CellShape shape, RuleTable table, int tileCols){
+        NeighborhoodType neighborhoodType = myNeighborTable.getNeighborhoodType();
+        if(shape == CellShape.SQUARE){
+            RowRule rule = SquareRowRules.create(mySimType, myLifeRule, HaloRows.offsets(shape, neighborhoodType, 0, 0, tileCols));
+            if(rule != null){
+                return new RowRule[]{rule, rule};
+            }
+        }
+        if(table == null){
+            return null;
+        }
+        RowRule[] rules = new RowRule[2];
+        for(int rowParity = 0; rowParity < 2; rowParity++){
+            rules[rowParity] = new TableRowRule(table, HaloRows.offsets(shape, neighborhoodType, rowParity, 0, tileCols),
+                    HaloRows.offsets(shape, neighborhoodType, rowParity, 1, tileCols));
+        }
+        return rules;
+    }
+
+    //Number of states comes from the SimulationInfo properties, without it the Cell rules run as they are
+    private RuleTable compileRuleTable(CellShape shape){
+        int maxNeighbors = myNeighborTable.getMaxNeighbors();
+        if(myLifeRule != null){
+            return RuleTable.lifeLike(myLifeRule, maxNeighbors);
+        }
+        try{
+            ResourceBundle info = ResourceBundle.getBundle(SIMULATION_INFO);
+            for(String key : info.keySet()){
+                if(key.equalsIgnoreCase(mySimType)){
+                    int states = Integer.parseInt(info.getString(key).trim());
+                    return RuleTable.compile(() -> simCellPicker(mySimType, 0, 0, 0), states, shape, maxNeighbors, this);
+                }
+            }
+        }catch(MissingResourceException | NumberFormatException e){
+            return null;
+        }
+        return null;
+    }
+
+    //Cell objects version, cells can replace themselves or other cells in the grid
+    private void updateGridCell(int row, int col, CellShape shape){
+        int count = myNeighborTable.getNeighbors(row, col, myNeighborLocations);
+        if(myLifeRule != null){
+            int live = 0;
+            for(int k = 0; k < count; k++){
+                live += (myCellGrid[myNeighborLocations[k] / myCols][myNeighborLocations[k] % myCols].getMyCurrentState() == 1) ? 1 : 0;
+            }
+            Cell cell = myCellGrid[row][col];
+            cell.setMyNextState(myLifeRule.isAliveNext(cell.getMyCurrentState() == 1, live) ? 1 : 0);
+            return;
+        }
+        Cell cell = myCellGrid[row][col];
+        if(cell instanceof CountRule){
+            int next = countNext((CountRule) cell, cell.getMyCurrentState(), count, shape);
+            if(next != CountRule.ORDER_DEPENDENT){
+                cell.setMyNextState(next);
+                return;
+            }
+        }
+        myNeighborCells.clear();
+        for(int k = 0; k < count; k++){
+            myNeighborCells.add(myCellGrid[myNeighborLocations[k] / myCols][myNeighborLocations[k] % myCols]);
+        }
+        List<Cell> newCells = myCellGrid[row][col].updateCell(myNeighborCells, this, shape);
         for(Cell c:newCells){
             myCellGrid[c.getMyRow()][c.getMyCol()] = c;
+            updateEmptyCell(c.getMyRow(), c.getMyCol());
         }
-        //myCellGrid[row][col] = myCellGrid[row][col].updateCell(n.getMyNeighbors(), this, shape);
-        //myCellGrid = myCellGrid[row][col].updateCell(n.getMyNeighbors(), myCellGrid, shape);
+    }
+
+    //Histogram of the neighbors' states in the reused counts array (cleared again afterwards), negative states only go to updateCell
+    private int countNext(CountRule rule, int state, int count, CellShape shape){
+        int largest = 0;
+        for(int k = 0; k < count; k++){
+            int neighbor = myCellGrid[myNeighborLocations[k] / myCols][myNeighborLocations[k] % myCols].getMyCurrentState();
+            if(neighbor < 0){
+                return CountRule.ORDER_DEPENDENT;
+            }
+            largest = Math.max(largest, neighbor);
+        }
+        if(myCounts.length <= largest){
+            myCounts = new int[largest + 1];
+        }
+        for(int k = 0; k < count; k++){
+            myCounts[myCellGrid[myNeighborLocations[k] / myCols][myNeighborLocations[k] % myCols].getMyCurrentState()]++;
+        }
+        int next = rule.nextState(state, myCounts, shape);
+        for(int k = 0; k < count; k++){
+            myCounts[myCellGrid[myNeighborLocations[k] / myCols][myNeighborLocations[k] % myCols].getMyCurrentState()] = 0;
+        }
+        return next;
+    }
+
+    //Segregation cells move around the grid during a step so they need real Cell objects
+    private boolean usesCellObjects(String simType){
+        return simType.equalsIgnoreCase("SEGREGATION");
     }
 
     //Helper method initializes correct cell simulation type
-    private Cell simCellPicker(String simType, int x, int y){
-        if(simType.equalsIgnoreCase("GAMEOFLIFE")){
-            return new GameOfLifeCell(x, y, myData.getStateAt(x, y));
+    private Cell simCellPicker(String simType, int x, int y, int state){
+        if(simType == null){
+            throw new SimulationException("Simulation type not found");
+        }
+        else if(simType.equalsIgnoreCase("GAMEOFLIFE")){
+            return new GameOfLifeCell(x, y, state);
         }
         else if(simType.equalsIgnoreCase("PERCOLATION")){
-            return new PercolationCell(x, y, myData.getStateAt(x, y));
+            return new PercolationCell(x, y, state);
         }
         else if(simType.equalsIgnoreCase("FIRE")){
-            return new FireCell(x, y, myData.getStateAt(x, y));
+            return new FireCell(x, y, state);
         }
         else if(simType.equalsIgnoreCase("RPS")){
-            return new RPSCell(x, y, myData.getStateAt(x, y));
+            return new RPSCell(x, y, state);
         }
         else if(simType.equalsIgnoreCase("SEGREGATION")){
-            return new SegregationCell(x, y, myData.getStateAt(x, y));
+            return new SegregationCell(x, y, state);
         }
         else if(simType.equalsIgnoreCase("PREDATORPREY")){
-            return new PredatorPreyCell(x, y, myData.getStateAt(x, y));
+            return new PredatorPreyCell(x, y, state);
         }
         else{
             throw new SimulationException("Simulation type not found");
         }
     }
 
-    //Helper method called by update to get correct neighborhood for cell
-    //Pass in "this" instead of myCellGrid
-    private Neighbors neighborhoodPicker(int x, int y, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
-        if(neighborhoodType == NeighborhoodType.COMPLETE){
-            //return new CompleteNeighbors(x, y, myCellGrid, shape, edgeType);
-            return new CompleteNeighbors(x, y, this, shape, edgeType);
+    /**
+     * Getter gets state at current location
+     * @param row
+     * @param col
+     * @return
+     */
+    public int getCellState(int row, int col){
+        if(myCellGrid == null){
+            return myStates.getCurrent(row * myCols + col);
         }
-        else if(neighborhoodType == NeighborhoodType.CARDINAL){
-            //return new CardinalNeighbors(x, y, myCellGrid, shape, edgeType);
-            return new CardinalNeighbors(x, y, this, shape, edgeType);
+        return myCellGrid[row][col].getMyCurrentState();
+    }
+
+    /**
+     * Copies every current state into a row major array (state of (row, col) at row * cols + col)
+     * @param states array of at least rows * cols entries
+     */
+    public void copyStates(byte[] states){
+        if(myCellGrid == null){
+            System.arraycopy(myStates.currentArray(), 0, states, 0, myRows * myCols);
+            return;
         }
-        else{ //Corner neighborhoodType
-            //return new CornerNeighbors(x, y, myCellGrid, shape, edgeType);
-            return new CornerNeighbors(x, y, this, shape, edgeType);
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myCols; j++) {
+                states[i * myCols + j] = (byte) myCellGrid[i][j].getMyCurrentState();
+            }
         }
     }
 
     /**
-     * calls cell's resetState method after each step
-     * @param row
-     * @param col
+     * getter
+     * @return number of steps taken since the grid was made (or the generation set by a loaded snapshot)
      */
-    public void resetCell(int row, int col){
-        myCellGrid[row][col].resetState();
+    public long getGeneration(){
+        return myGeneration;
     }
 
     /**
-     * Getter call's cell backend to get state at current location
-     * @param row
-     * @param col
-     * @return
+     * Sets the generation number (loading a snapshot continues counting from the saved generation)
+     * @param generation
      */
-    public int getCellState(int row, int col){
-        return myCellGrid[row][col].getMyCurrentState();
+    public void setGeneration(long generation){
+        myGeneration = generation;
+        myRandom = null;
     }
 
     /**
-     * getter
-     * @return cell grid
+     * Counts how many cells are in each state (array grows if a state above numStates shows up)
+     * @param numStates
+     * @return counts indexed by state
+     */
+    public int[] countStates(int numStates){
+        int[] counts = new int[numStates];
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myCols; j++) {
+                int state = getCellState(i, j);
+                if(state >= counts.length){
+                    counts = Arrays.copyOf(counts, state + 1);
+                }
+                counts[state]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Same counts as countStates without looking at the grid: they are kept up to date from the cells each step
+     * (and updateCellState or setCellAt) changes
+     * @param numStates
+     * @return counts indexed by state, at least numStates long (longer if a higher state is on the grid)
+     */
+    public int[] getStateCounts(int numStates){
+        int length = numStates;
+        for(int state = numStates; state <= Byte.MAX_VALUE; state++){
+            if(myStateCounts[state] > 0){
+                length = state + 1;
+            }
+        }
+        return Arrays.copyOf(myStateCounts, length);
+    }
+
+    //States are stored as bytes, negative ones are kept past Byte.MAX_VALUE and never reported
+    private void countChange(int oldState, int newState){
+        myStateCounts[Byte.toUnsignedInt((byte) oldState)]--;
+        myStateCounts[Byte.toUnsignedInt((byte) newState)]++;
+    }
+
+    /**
+     * Sets current and next state of a location (user clicks and loading)
+     * @param row
+     * @param col
+     * @param newState
      */
     public void updateCellState(int row, int col, int newState){
-        myCellGrid[row][col].setMyCurrentState(newState);
-        myCellGrid[row][col].setMyNextState(newState);
+        countChange(myStates.getCurrent(row * myCols + col), newState);
+        myStates.set(row * myCols + col, newState);
+        isLifeBoardRejected = false;
+        if(myAgents != null){
+            myAgents.set(row * myCols + col, newState);
+        }
+        myFire = null;
+        if(myLifeBoard != null){
+            if(newState == 0 || newState == 1){
+                myLifeBoard.set(row, col, newState == 1);
+            }
+            else{
+                dropLifeBoard();
+            }
+        }
+        if(myNeighborTable == null){
+            myActivity.markAll();
+        }
+        else{
+            myActivity.markChanged(row * myCols + col, myNeighborTable);
+        }
+        if(myCellGrid != null){
+            myCellGrid[row][col].setMyCurrentState(newState);
+            myCellGrid[row][col].setMyNextState(newState);
+        }
+        updateEmptyCell(row, col);
+        mySatisfaction = null;
     }
 
     /**
@@ -139,10 +747,133 @@ public class Grid {
     public int getMyCols(){
         return myCols;
     }
+
+    /**
+     * Buffer backed grids have no Cell objects so this returns a new cell holding the current state
+     * (changing it does not change the grid), otherwise returns the cell stored at this location
+     * @param row
+     * @param col
+     * @return
+     */
     public Cell getCellAt(int row, int col){
+        if(myCellGrid == null){
+            return simCellPicker(mySimType, row, col, myStates.getCurrent(row * myCols + col));
+        }
         return myCellGrid[row][col];
     }
+
+    /**
+     * Places a cell object in the grid, switches the grid over to Cell objects if it was buffer backed
+     * @param row
+     * @param col
+     * @param cell
+     */
     public void setCellAt(int row, int col, Cell cell){
+        dropLifeBoard();
+        myAgents = null;
+        myFire = null;
+        if(myCellGrid == null){
+            myCellGrid = new Cell[myRows][myCols];
+            if(mySimType != null){
+                for (int i = 0; i < myRows; i++) {
+                    for (int j = 0; j < myCols; j++) {
+                        myCellGrid[i][j] = simCellPicker(mySimType, i, j, myStates.getCurrent(i * myCols + j));
+                    }
+                }
+            }
+        }
         myCellGrid[row][col] = cell;
+        countChange(myStates.getCurrent(row * myCols + col), cell.getMyCurrentState());
+        myStates.set(row * myCols + col, cell.getMyCurrentState());
+        updateEmptyCell(row, col);
+        mySatisfaction = null;
+    }
+
+    /**
+     * Picks an empty (state 0) cell, every empty cell equally likely
+     * The empty cells are indexed the first time this is called and the index is kept up to date
+     * through updateCellState, setCellAt and the cells returned by Cell.updateCell, so each pick is O(1)
+     * @return empty cell, or null if there is none
+     */
+    public Cell randomEmptyCell(){
+        if(myEmptyCells == null){
+            indexEmptyCells();
+        }
+        if(myEmptyCells.size() == 0){
+            return null;
+        }
+        int location = myEmptyCells.pickRandom(getRandom());
+        return getCellAt(location / myCols, location % myCols);
+    }
+
+    /**
+     * Random numbers for the generation being stepped, every random choice a rule makes should come from here
+     * @return stream of this generation (the same sequence every run with the same seed)
+     */
+    public SplittableRandom getRandom(){
+        if(myRandom == null){
+            myRandom = myStreams.stream(myGeneration);
+        }
+        return myRandom;
+    }
+
+    /**
+     * Makes the random choices of later steps repeatable (Seed key of the properties file)
+     * @param seed
+     */
+    public void setSeed(long seed){
+        myStreams = new RandomStreams(seed);
+        myRandom = null;
+    }
+
+    /**
+     * getter
+     * @return seed of the random streams
+     */
+    public long getSeed(){
+        return myStreams.getSeed();
+    }
+
+    /**
+     * getter
+     * @return number of empty (state 0) cells
+     */
+    public int getEmptyCount(){
+        if(myEmptyCells == null){
+            indexEmptyCells();
+        }
+        return myEmptyCells.size();
+    }
+
+    private void indexEmptyCells(){
+        myEmptyCells = new IndexedCellSet(myRows * myCols);
+        for (int i = 0; i < myRows; i++) {
+            for (int j = 0; j < myCols; j++) {
+                updateEmptyCell(i, j);
+            }
+        }
+    }
+
+    //Moves one location in or out of the empty cell index after its state changed
+    private void updateEmptyCell(int row, int col){
+        if(myEmptyCells == null){
+            return;
+        }
+        int state;
+        if(myCellGrid == null){
+            state = myStates.getCurrent(row * myCols + col);
+        }
+        else if(myCellGrid[row][col] == null){
+            return;
+        }
+        else{
+            state = myCellGrid[row][col].getMyCurrentState();
+        }
+        if(state == 0){
+            myEmptyCells.add(row * myCols + col);
+        }
+        else{
+            myEmptyCells.remove(row * myCols + col);
+        }
     }
 }
@@ -0,0 +1,375 @@
+package Controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GridTest {
+    private Grid myGrid;
+
+    @BeforeEach
+    void setUp(){
+        //5 by 5 grid, only cells on the main diagonal start in state 1
+        myGrid = new Grid(new Data("DataTest_Config_1.csv"));
+        myGrid.fillCellGrid("GameOfLife");
+    }
+
+    @Test
+    void diagonalLineShrinks(){
+        myGrid.step(CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+
+        //Ends of the diagonal only have 1 live neighbor, middle cells have 2
+        assertEquals(0, myGrid.getCellState(0, 0));
+        assertEquals(1, myGrid.getCellState(2, 2));
+        assertEquals(0, myGrid.getCellState(4, 4));
+        assertEquals(1, myGrid.getCellState(1, 1));
+    }
+
+    @Test
+    void changedCellsAreTheDiagonalEnds(){
+        myGrid.step(CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+
+        ChangeList changed = myGrid.getChangedCells();
+        assertEquals(2, changed.size());
+        assertEquals(0, changed.getLocation(0));
+        assertEquals(4, changed.getRow(1));
+        assertEquals(4, changed.getCol(1));
+    }
+
+    @Test
+    void updateCellStateSetsCurrent(){
+        myGrid.updateCellState(0, 4, 1);
+
+        var expected = 1;
+        var actual = myGrid.getCellState(0, 4);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void getCellAtIsDetached(){
+        myGrid.getCellAt(0, 4).setMyCurrentState(1);
+
+        var expected = 0;
+        var actual = myGrid.getCellState(0, 4);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void unknownSimulationType(){
+        assertThrows(SimulationException.class, () -> myGrid.fillCellGrid("NotASimulation"));
+    }
+
+    @Test
+    void parallelStepMatchesSequential(){
+        for(EdgeType edgeType : EdgeType.values()){
+            Grid sequential = new Grid(new Data("RPS_Config_1.csv"));
+            sequential.fillCellGrid("RPS");
+            Grid parallel = new Grid(new Data("RPS_Config_1.csv"));
+            parallel.fillCellGrid("RPS");
+            parallel.setThreadCount(3);
+            for(int k=0; k<10; k++){
+                sequential.step(CellShape.TRIANGLE, edgeType, NeighborhoodType.COMPLETE);
+                parallel.step(CellShape.TRIANGLE, edgeType, NeighborhoodType.COMPLETE);
+            }
+            for(int i=0; i<sequential.getMyRows(); i++){
+                for(int j=0; j<sequential.getMyCols(); j++){
+                    assertEquals(sequential.getCellState(i, j), parallel.getCellState(i, j));
+                }
+            }
+        }
+    }
+
+    //Cell object grids evaluate every cell every step, buffer grids only the active ones
+    void checkActiveCellsMatchFullSweep(String file, String simType){
+        for(CellShape shape : CellShape.values()){
+            for(EdgeType edgeType : EdgeType.values()){
+                for(NeighborhoodType neighborhoodType : NeighborhoodType.values()){
+                    Grid active = new Grid(new Data(file));
+                    active.fillCellGrid(simType);
+                    Grid full = new Grid(new Data(file));
+                    full.fillCellGrid(simType);
+                    full.setCellAt(0, 0, full.getCellAt(0, 0));
+                    for(int k=0; k<15; k++){
+                        if(k == 5){
+                            active.updateCellState(3, 3, 2);
+                            full.updateCellState(3, 3, 2);
+                        }
+                        active.step(shape, edgeType, neighborhoodType);
+                        full.step(shape, edgeType, neighborhoodType);
+                        for(int i=0; i<active.getMyRows(); i++){
+                            for(int j=0; j<active.getMyCols(); j++){
+                                assertEquals(full.getCellState(i, j), active.getCellState(i, j));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void activeFireMatchesFullSweep(){
+        checkActiveCellsMatchFullSweep("Fire_Config_1.csv", "Fire");
+    }
+
+    @Test
+    void fireFrontMatchesCellObjects(){
+        for(CellShape shape : CellShape.values()){
+            for(EdgeType edgeType : EdgeType.values()){
+                //State 3 is not a Fire state, FireCell empties it on the first step
+                Grid front = new Grid(new Data(new double[]{0.1, 0.8, 0.05, 0.05}, 40, 50, new Random(9)));
+                front.fillCellGrid("Fire");
+                Grid objects = new Grid(new Data(new double[]{0.1, 0.8, 0.05, 0.05}, 40, 50, new Random(9)));
+                objects.fillCellGrid("Fire");
+                objects.setCellAt(0, 0, objects.getCellAt(0, 0));
+                for(int k=0; k<30; k++){
+                    front.step(shape, edgeType, NeighborhoodType.COMPLETE);
+                    objects.step(shape, edgeType, NeighborhoodType.COMPLETE);
+                    for(int i=0; i<40; i++){
+                        for(int j=0; j<50; j++){
+                            assertEquals(objects.getCellState(i, j), front.getCellState(i, j));
+                        }
+                    }
+                    assertEquals(objects.getChangedCells().size(), front.getChangedCells().size());
+                }
+            }
+        }
+    }
+
+    //Every shape, neighborhood and edge, rows stepped from HaloRows tiles against Cell objects
+    void checkRowRulesMatchCellObjects(String simType, double[] probabilities, LifeRule rule, int rowCount, int colCount, int tileCols){
+        for(CellShape shape : CellShape.values()){
+            for(EdgeType edgeType : EdgeType.values()){
+                for(NeighborhoodType neighborhoodType : NeighborhoodType.values()){
+                    checkRowRulesMatchCellObjects(simType, probabilities, rule, rowCount, colCount, tileCols, shape, edgeType, neighborhoodType);
+                }
+            }
+        }
+    }
+
+    void checkRowRulesMatchCellObjects(String simType, double[] probabilities, LifeRule rule, int rowCount, int colCount, int tileCols,
+                                       CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        Grid rows = new Grid(new Data(probabilities, rowCount, colCount, new Random(12)));
+        rows.fillCellGrid(simType);
+        rows.setLifeRule(rule);
+        rows.setTileColumns(tileCols);
+        Grid objects = new Grid(new Data(probabilities, rowCount, colCount, new Random(12)));
+        objects.fillCellGrid(simType);
+        objects.setLifeRule(rule);
+        objects.setCellAt(0, 0, objects.getCellAt(0, 0));
+        for(int k=0; k<12; k++){
+            rows.step(shape, edgeType, neighborhoodType);
+            objects.step(shape, edgeType, neighborhoodType);
+            for(int i=0; i<rowCount; i++){
+                for(int j=0; j<colCount; j++){
+                    assertEquals(objects.getCellState(i, j), rows.getCellState(i, j));
+                }
+            }
+        }
+    }
+
+    //Wide enough for several vectors per row plus a tail, tall enough for two rows of HaloRows tiles
+    //with an odd last row (hexagon and triangle rows alternate)
+    void checkRowRulesMatchCellObjects(String simType, double[] probabilities, LifeRule rule){
+        checkRowRulesMatchCellObjects(simType, probabilities, rule, 71, 151, 0);
+        //Halo rows and columns that wrap onto the cell itself or its other neighbors
+        checkRowRulesMatchCellObjects(simType, probabilities, rule, 2, 3, 0);
+        checkRowRulesMatchCellObjects(simType, probabilities, rule, 1, 1, 0);
+        //Tiles narrower than the neighborhood reach, and a narrow odd last tile
+        checkRowRulesMatchCellObjects(simType, probabilities, rule, 3, 5, 2);
+        checkRowRulesMatchCellObjects(simType, probabilities, rule, 5, 37, 8);
+    }
+
+    @Test
+    void rowRulesMatchCellObjects(){
+        checkRowRulesMatchCellObjects("RPS", new double[]{0.34, 0.33, 0.33}, null);
+        checkRowRulesMatchCellObjects("Percolation", new double[]{0.3, 0.65, 0.05}, null);
+        //State 2 keeps Game of Life off the bit board and exercises the default rule fallback
+        checkRowRulesMatchCellObjects("GameOfLife", new double[]{0.55, 0.4, 0.05}, null);
+        checkRowRulesMatchCellObjects("GameOfLife", new double[]{0.6, 0.4}, LifeRule.parse("B36/S23"));
+    }
+
+    @Test
+    void activePercolationMatchesFullSweep(){
+        checkActiveCellsMatchFullSweep("Percolation_Config_1.csv", "Percolation");
+    }
+
+    @Test
+    void activeRPSMatchesFullSweep(){
+        checkActiveCellsMatchFullSweep("RPS_Config_1.csv", "RPS");
+    }
+
+    //Word boundaries (64 columns) and tiny grids where wrapped neighbors are the cell itself or counted twice
+    @Test
+    void lifeBoardMatchesCellObjects(){
+        int[][] sizes = {{1, 1}, {1, 5}, {2, 2}, {3, 70}, {65, 64}, {20, 130}};
+        for(int[] size : sizes){
+            for(EdgeType edgeType : EdgeType.values()){
+                Grid packed = new Grid(new Data(new double[]{0.6, 0.4}, size[0], size[1], new Random(size[1])));
+                packed.fillCellGrid("GameOfLife");
+                Grid objects = new Grid(new Data(new double[]{0.6, 0.4}, size[0], size[1], new Random(size[1])));
+                objects.fillCellGrid("GameOfLife");
+                objects.setCellAt(0, 0, objects.getCellAt(0, 0));
+                for(int k=0; k<20; k++){
+                    if(k == 10){
+                        packed.updateCellState(0, size[1] - 1, 1);
+                        objects.updateCellState(0, size[1] - 1, 1);
+                    }
+                    packed.step(CellShape.SQUARE, edgeType, NeighborhoodType.COMPLETE);
+                    objects.step(CellShape.SQUARE, edgeType, NeighborhoodType.COMPLETE);
+                    for(int i=0; i<size[0]; i++){
+                        for(int j=0; j<size[1]; j++){
+                            assertEquals(objects.getCellState(i, j), packed.getCellState(i, j));
+                        }
+                    }
+                    assertEquals(objects.getChangedCells().size(), packed.getChangedCells().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    void lifeRuleMatchesCellObjects(){
+        for(CellShape shape : CellShape.values()){
+            Grid packed = new Grid(new Data(new double[]{0.6, 0.4}, 40, 70, new Random(3)));
+            packed.fillCellGrid("GameOfLife");
+            packed.setLifeRule(LifeRule.parse("B36/S23"));
+            Grid objects = new Grid(new Data(new double[]{0.6, 0.4}, 40, 70, new Random(3)));
+            objects.fillCellGrid("GameOfLife");
+            objects.setLifeRule(LifeRule.parse("B36/S23"));
+            objects.setCellAt(0, 0, objects.getCellAt(0, 0));
+            for(int k=0; k<20; k++){
+                packed.step(shape, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+                objects.step(shape, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+                for(int i=0; i<40; i++){
+                    for(int j=0; j<70; j++){
+                        assertEquals(objects.getCellState(i, j), packed.getCellState(i, j));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void lifeRuleOnlyForGameOfLife(){
+        Grid grid = new Grid(new Data("Fire_Config_1.csv"));
+        grid.fillCellGrid("Fire");
+
+        assertThrows(SimulationException.class, () -> grid.setLifeRule(LifeRule.parse("B3/S23")));
+    }
+
+    //Odd tiles would put odd grid columns on even tile columns
+    @Test
+    void tileColumnsMustBeEven(){
+        assertThrows(SimulationException.class, () -> myGrid.setTileColumns(5));
+    }
+
+    @Test
+    void segregationEmptyIndexFollowsMoves(){
+        Grid grid = new Grid(new Data(new double[]{0.3, 0.35, 0.35}, 30, 30, new Random(5)));
+        grid.fillCellGrid("Segregation");
+        int[] before = grid.countStates(3);
+        grid.getEmptyCount();
+        for(int k=0; k<10; k++){
+            grid.step(CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+            int empty = 0;
+            for(int i=0; i<30; i++){
+                for(int j=0; j<30; j++){
+                    empty += grid.getCellState(i, j) == 0 ? 1 : 0;
+                }
+            }
+            assertEquals(empty, grid.getEmptyCount());
+        }
+        assertArrayEquals(before, grid.countStates(3));
+        grid.updateCellState(0, 0, 0);
+        grid.updateCellState(0, 1, 1);
+
+        assertEquals(0, grid.getCellState(0, 0));
+        assertEquals(grid.countStates(3)[0], grid.getEmptyCount());
+    }
+
+    @Test
+    void segregationOnlyMovesUnhappyAgents(){
+        Grid grid = new Grid(new Data(new double[]{0.2, 0.4, 0.4}, 30, 40, new Random(8)));
+        grid.fillCellGrid("Segregation");
+        NeighborTable table = new NeighborTable(30, 40, CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+        int[] neighbors = new int[table.getMaxNeighbors()];
+        int[] counts = grid.countStates(3);
+        for(int k=0; k<15; k++){
+            boolean[] happy = new boolean[30 * 40];
+            for(int loc=0; loc<30 * 40; loc++){
+                int state = grid.getCellState(loc / 40, loc % 40);
+                int same = 0;
+                int occupied = 0;
+                for(int n=0; n<table.getNeighbors(loc / 40, loc % 40, neighbors); n++){
+                    int other = grid.getCellState(neighbors[n] / 40, neighbors[n] % 40);
+                    occupied += other != 0 ? 1 : 0;
+                    same += other == state ? 1 : 0;
+                }
+                happy[loc] = state != 0 && Model.SegregationCell.isSatisfied(same, occupied);
+            }
+            grid.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+
+            ChangeList changes = grid.getChangedCells();
+            for(int c=0; c<changes.size(); c++){
+                assertFalse(happy[changes.getLocation(c)]);
+            }
+            assertArrayEquals(counts, grid.countStates(3));
+        }
+    }
+
+    @Test
+    void predatorPreyChangesMatchStates(){
+        Grid grid = new Grid(new Data(new double[]{0.6, 0.3, 0.1}, 25, 25, new Random(2)));
+        grid.fillCellGrid("PredatorPrey");
+        for(int k=0; k<20; k++){
+            int[][] before = new int[25][25];
+            for(int i=0; i<25; i++){
+                for(int j=0; j<25; j++){
+                    before[i][j] = grid.getCellState(i, j);
+                }
+            }
+            grid.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.CARDINAL);
+
+            boolean[] changed = new boolean[25 * 25];
+            ChangeList changes = grid.getChangedCells();
+            for(int c=0; c<changes.size(); c++){
+                changed[changes.getLocation(c)] = true;
+            }
+            for(int i=0; i<25; i++){
+                for(int j=0; j<25; j++){
+                    assertEquals(changed[i * 25 + j], before[i][j] != grid.getCellState(i, j));
+                }
+            }
+        }
+    }
+
+    //Every engine (bit board, fire front, agents, row rules, Cell objects, HashLife) keeps the counts in step with a full count
+    @Test
+    void stateCountsFollowEveryEngine(){
+        String[] simTypes = {"GameOfLife", "GameOfLife", "Fire", "PredatorPrey", "Segregation", "RPS", "Percolation"};
+        CellShape[] shapes = {CellShape.SQUARE, CellShape.HEXAGON, CellShape.SQUARE, CellShape.SQUARE, CellShape.SQUARE, CellShape.TRIANGLE, CellShape.SQUARE};
+        for(int s=0; s<simTypes.length; s++){
+            Grid grid = new Grid(new Data(new double[]{0.5, 0.3, 0.2}, 32, 32, new Random(s)));
+            grid.fillCellGrid(simTypes[s]);
+            grid.updateCellState(0, 0, 2);
+            for(int k=0; k<10; k++){
+                grid.step(shapes[s], EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+                assertArrayEquals(grid.countStates(3), grid.getStateCounts(3));
+            }
+        }
+        Grid life = new Grid(new Data(new double[]{0.7, 0.3}, 32, 32, new Random(3)));
+        life.fillCellGrid("GameOfLife");
+        life.advanceTo(100, CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+        assertArrayEquals(life.countStates(2), life.getStateCounts(2));
+        var cell = life.getCellAt(0, 0);
+        cell.setMyCurrentState(1 - cell.getMyCurrentState());
+        life.setCellAt(0, 0, cell);
+        assertArrayEquals(life.countStates(2), life.getStateCounts(2));
+        life.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+        assertArrayEquals(life.countStates(2), life.getStateCounts(2));
+    }
+}
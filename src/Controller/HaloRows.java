@@ -0,0 +1,153 @@
+package Controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A tile of the grid (consecutive rows, at most tileCols consecutive columns) copied into a padded array with a halo
+ * (ghost cells) around it, one row above and below and two columns on each side (triangles reach two columns away)
+ * Tiles as wide as the grid are whole rows, narrower ones let wide grids be stepped with the tile, its halo and the
+ * rows written in L1/L2 whatever the grid width (Grid.setTileColumns), tiles start on even columns so column parity
+ * in a tile is the same as in the grid
+ * The halo is filled once per tile: cells on the grid are copies, off-grid ones follow the EdgeType the same way
+ * Neighbors.edgeCheck maps them: TOROIDAL ones are wrapped copies (a row or column before the first maps to the last
+ * and one after the last maps to the first, like Neighbors.toroidal), SEMITOROIDAL ones are wrapped copies except the
+ * corners, FINITE ones (and the semitoroidal corners) hold OUTSIDE
+ * Every cell of the tile, border cells included, then has its neighbors at fixed offsets (offsets() for its
+ * row and column parity), so row rules read them without any bounds or wrap checks
+ */
+class HaloRows {
+    /**
+     * State of a halo cell that stands for no neighbor, row rules must not count it as any state
+     */
+    static final byte OUTSIDE = -1;
+    private static final int COL_WIDTH = 2;
+    private static final int NO_ROW = -1;
+    //Small finite grid whose cells (PROBE_ROW - parity, PROBE_COL + parity) have every neighbor on the grid
+    private static final int PROBE_ROWS = 4;
+    private static final int PROBE_COLS = 6;
+    private static final int PROBE_ROW = 2;
+    private static final int PROBE_COL = 2;
+
+    private int myRows;
+    private int myCols;
+    private int myStride;
+    private byte[] myCells;
+    private int myFirstRow;
+
+    /**
+     * Constructor
+     * @param rows rows of the grid
+     * @param cols cols of the grid
+     * @param capacity most rows one tile holds
+     * @param tileCols most cols one tile holds, even unless it is cols
+     */
+    HaloRows(int rows, int cols, int capacity, int tileCols){
+        myRows = rows;
+        myCols = cols;
+        myStride = stride(tileCols);
+        myCells = new byte[(capacity + 2) * myStride];
+    }
+
+    /**
+     * @param rows
+     * @param cols
+     * @return true if this was made for a grid of that size
+     */
+    boolean fits(int rows, int cols){
+        return myRows == rows && myCols == cols;
+    }
+
+    /**
+     * @param tileCols most cols one tile holds
+     * @return distance between two rows in the padded array
+     */
+    static int stride(int tileCols){
+        return tileCols + 2 * COL_WIDTH;
+    }
+
+    /**
+     * Neighbor offsets in a block, in the order the Neighbors classes list them
+     * @param shape
+     * @param neighborhoodType
+     * @param rowParity row % 2 of the cells
+     * @param colParity col % 2 of the cells
+     * @param tileCols most cols one tile holds
+     * @return
+     */
+    static int[] offsets(CellShape shape, NeighborhoodType neighborhoodType, int rowParity, int colParity, int tileCols){
+        int row = PROBE_ROW - rowParity;
+        int col = PROBE_COL + colParity;
+        List<Integer> locations = NeighborTable.neighborhoodPicker(row, col, PROBE_ROWS, PROBE_COLS, shape, EdgeType.FINITE, neighborhoodType).getMyNeighbors();
+        int[] offsets = new int[locations.size()];
+        for(int k = 0; k < offsets.length; k++){
+            int rowStep = locations.get(k) / PROBE_COLS - row;
+            int colStep = locations.get(k) % PROBE_COLS - col;
+            offsets[k] = rowStep * stride(tileCols) + colStep;
+        }
+        return offsets;
+    }
+
+    /**
+     * Copies rows [rowStart, rowEnd) and cols [colStart, colEnd) of the current states plus the halo around them
+     * @param current current states, row major without padding
+     * @param edgeType
+     * @param rowStart
+     * @param rowEnd
+     * @param colStart even
+     * @param colEnd at most colStart + tileCols
+     */
+    void fill(byte[] current, EdgeType edgeType, int rowStart, int rowEnd, int colStart, int colEnd){
+        myFirstRow = rowStart;
+        int width = colEnd - colStart;
+        for(int i = rowStart - 1; i <= rowEnd; i++){
+            int padded = (i - rowStart + 1) * myStride;
+            int source = sourceRow(i, edgeType);
+            if(source == NO_ROW){
+                Arrays.fill(myCells, padded, padded + width + 2 * COL_WIDTH, OUTSIDE);
+                continue;
+            }
+            System.arraycopy(current, source * myCols + colStart, myCells, padded + COL_WIDTH, width);
+            //Semitoroidal cells only wrap in one direction, so a wrapped row has no wrapped corners
+            boolean isWrapped = edgeType == EdgeType.TOROIDAL || (edgeType == EdgeType.SEMITOROIDAL && source == i);
+            for(int w = 0; w < COL_WIDTH; w++){
+                myCells[padded + w] = haloCell(current, source, colStart - COL_WIDTH + w, isWrapped);
+                myCells[padded + COL_WIDTH + width + w] = haloCell(current, source, colEnd + w, isWrapped);
+            }
+        }
+    }
+
+    /**
+     * @param row a row of the tile filled last
+     * @return index in getCells() of the row's cell in the tile's first column
+     */
+    int locate(int row){
+        return (row - myFirstRow + 1) * myStride + COL_WIDTH;
+    }
+
+    byte[] getCells(){
+        return myCells;
+    }
+
+    //State of a halo column next to the tile, a copy when the column is on the grid
+    private byte haloCell(byte[] current, int source, int col, boolean isWrapped){
+        if(col >= 0 && col < myCols){
+            return current[source * myCols + col];
+        }
+        if(!isWrapped){
+            return OUTSIDE;
+        }
+        return current[source * myCols + ((col < 0) ? myCols - 1 : 0)];
+    }
+
+    //Grid row a halo row is a copy of, wrapping goes one row like Neighbors.toroidal
+    private int sourceRow(int row, EdgeType edgeType){
+        if(row >= 0 && row < myRows){
+            return row;
+        }
+        if(edgeType == EdgeType.FINITE){
+            return NO_ROW;
+        }
+        return (row < 0) ? myRows - 1 : 0;
+    }
+}
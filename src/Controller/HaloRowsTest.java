@@ -0,0 +1,108 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HaloRowsTest {
+    private static final int ROWS = 4;
+    private static final int COLS = 5;
+
+    //Every cell's state is its location + 10, so a halo copy shows where it came from
+    private byte[] states(){
+        byte[] states = new byte[ROWS * COLS];
+        for(int loc = 0; loc < states.length; loc++){
+            states[loc] = (byte) (loc + 10);
+        }
+        return states;
+    }
+
+    //The 8 states around (row, col) read from the halo, in the same order Neighbors lists them
+    private int[] haloNeighbors(HaloRows halo, int row, int col){
+        int[] found = new int[8];
+        int stride = HaloRows.stride(COLS);
+        int k = 0;
+        for(int i = -1; i <= 1; i++){
+            for(int j = -1; j <= 1; j++){
+                if(i != 0 || j != 0){
+                    found[k++] = halo.getCells()[halo.locate(row) + col + i * stride + j];
+                }
+            }
+        }
+        return found;
+    }
+
+    @Test
+    void haloMatchesNeighbors(){
+        byte[] states = states();
+        for(EdgeType edgeType : EdgeType.values()){
+            HaloRows halo = new HaloRows(ROWS, COLS, 2, COLS);
+            for(int blockStart = 0; blockStart < ROWS; blockStart += 2){
+                halo.fill(states, edgeType, blockStart, blockStart + 2, 0, COLS);
+                for(int row = blockStart; row < blockStart + 2; row++){
+                    for(int col = 0; col < COLS; col++){
+                        List<Integer> locations = new CompleteNeighbors(row, col, ROWS, COLS, CellShape.SQUARE, edgeType).getMyNeighbors();
+                        int[] found = haloNeighbors(halo, row, col);
+                        int k = 0;
+                        for(int state : found){
+                            if(state != HaloRows.OUTSIDE){
+                                assertEquals(states[locations.get(k++)], state);
+                            }
+                        }
+                        assertEquals(locations.size(), k);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void semitoroidalCornersAreOutside(){
+        HaloRows halo = new HaloRows(ROWS, COLS, ROWS, COLS);
+        halo.fill(states(), EdgeType.SEMITOROIDAL, 0, ROWS, 0, COLS);
+
+        var expected = HaloRows.OUTSIDE;
+        var actual = haloNeighbors(halo, 0, 0)[0];
+        assertEquals(expected, actual);
+        assertEquals(10 + (ROWS - 1) * COLS, haloNeighbors(halo, 0, 0)[1]);
+    }
+
+    //Sorted states at the offsets around (row, col of the tile), without OUTSIDE
+    private int[] tileNeighbors(HaloRows halo, int[] offsets, int row, int tileCol){
+        return Arrays.stream(offsets).map(offset -> halo.getCells()[halo.locate(row) + tileCol + offset])
+                .filter(state -> state != HaloRows.OUTSIDE).sorted().toArray();
+    }
+
+    //Several tiles per row so the halo columns between tiles are grid cells, every shape reads them through offsets()
+    @Test
+    void tilesMatchNeighbors(){
+        int tileCols = 4;
+        int cols = 3 * tileCols + 1;
+        byte[] states = new byte[ROWS * cols];
+        for(int loc = 0; loc < states.length; loc++){
+            states[loc] = (byte) (loc + 10);
+        }
+        for(CellShape shape : CellShape.values()){
+            for(EdgeType edgeType : EdgeType.values()){
+                for(NeighborhoodType neighborhoodType : NeighborhoodType.values()){
+                    HaloRows halo = new HaloRows(ROWS, cols, ROWS, tileCols);
+                    for(int tileStart = 0; tileStart < cols; tileStart += tileCols){
+                        int tileEnd = Math.min(cols, tileStart + tileCols);
+                        halo.fill(states, edgeType, 0, ROWS, tileStart, tileEnd);
+                        for(int row = 0; row < ROWS; row++){
+                            for(int col = tileStart; col < tileEnd; col++){
+                                List<Integer> locations = NeighborTable.neighborhoodPicker(row, col, ROWS, cols, shape, edgeType, neighborhoodType).getMyNeighbors();
+                                int[] expected = locations.stream().mapToInt(loc -> states[loc]).sorted().toArray();
+                                int[] actual = tileNeighbors(halo, HaloRows.offsets(shape, neighborhoodType, row % 2, col % 2, tileCols), row, col - tileStart);
+                                assertArrayEquals(expected, actual);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
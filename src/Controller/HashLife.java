@@ -0,0 +1,376 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HashLife for the square Game of Life rule: the board is a quadtree of canonical (shared) nodes and every node
+ * remembers the center of itself some generations later, so repeated patterns are only ever computed once
+ * and a jump of 2^k generations costs about as much as the number of distinct patterns it goes through
+ * Only toroidal boards whose sides are powers of two are exact here: such a board is the same as the infinite plane
+ * tiled with copies of it, which is what HashLife steps (finite and semitoroidal edges are not like any tiling)
+ * The node table is bounded, when it grows past the limit everything not in the current board is thrown away
+ */
+class HashLife {
+    private static final int DEFAULT_MAX_NODES = 1 << 20;
+    private static final int BASE_LEVEL = 2;
+    private static final int BASE_SIZE = 4;
+    private static final int INITIAL_TABLE_SIZE = 1 << 10;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int HASH_SHIFT = 32;
+
+    private int myRows;
+    private int myCols;
+    private int myLevel;
+    private int[] myRevive;
+    private int[] mySurvive;
+    private int myMaxNodes;
+    private int myStepLog;
+    private Node[] myTable = new Node[INITIAL_TABLE_SIZE];
+    private int myNodeCount;
+    private long myNextId;
+    private List<Node> myEmpty = new ArrayList<>();
+    private Node myDead = new Node(false, myNextId++);
+    private Node myAlive = new Node(true, myNextId++);
+    private Node myTile;
+
+    /**
+     * Constructor with the default bound on the node table
+     * @param revive live neighbor counts that bring a dead cell to life
+     * @param survive live neighbor counts that keep a live cell alive
+     */
+    HashLife(int[] revive, int[] survive){
+        this(DEFAULT_MAX_NODES, revive, survive);
+    }
+
+    /**
+     * Constructor
+     * @param maxNodes node table size that triggers throwing away nodes no longer used
+     * @param revive
+     * @param survive
+     */
+    HashLife(int maxNodes, int[] revive, int[] survive){
+        myMaxNodes = maxNodes;
+        myRevive = revive;
+        mySurvive = survive;
+        myEmpty.add(myDead);
+    }
+
+    /**
+     * Checks if a toroidal board of this size can be stepped exactly
+     * @param rows
+     * @param cols
+     * @return true when both sides are powers of two
+     */
+    static boolean supports(int rows, int cols){
+        return rows > 0 && cols > 0 && Integer.bitCount(rows) == 1 && Integer.bitCount(cols) == 1;
+    }
+
+    /**
+     * Loads row major states (state of (row, col) at row * cols + col) as the board
+     * @param states
+     * @param rows
+     * @param cols
+     * @return false (and nothing loaded) if the size is not supported or any state is not 0 or 1
+     */
+    boolean load(byte[] states, int rows, int cols){
+        if(!supports(rows, cols)){
+            return false;
+        }
+        for(int k = 0; k < rows * cols; k++){
+            if(states[k] != 0 && states[k] != 1){
+                return false;
+            }
+        }
+        myRows = rows;
+        myCols = cols;
+        myLevel = Integer.numberOfTrailingZeros(Math.max(rows, cols));
+        myTile = build(states, myLevel, 0, 0);
+        return true;
+    }
+
+    /**
+     * Loads the current states of a grid
+     * @param grid
+     * @return false (and nothing loaded) if the size is not supported or any state is not 0 or 1
+     */
+    boolean load(Grid grid){
+        byte[] states = new byte[grid.getMyRows() * grid.getMyCols()];
+        grid.copyStates(states);
+        return load(states, grid.getMyRows(), grid.getMyCols());
+    }
+
+    /**
+     * Moves the board the given number of generations ahead, in jumps of the largest power of two that fits
+     * (at most the board size, the farthest a tile can be stepped before its copies start to matter)
+     * @param generations
+     */
+    void advance(long generations){
+        while(generations > 0){
+            int stepLog = Math.min(myLevel, Long.SIZE - 1 - Long.numberOfLeadingZeros(generations));
+            myTile = jump(myTile, stepLog);
+            generations -= 1L << stepLog;
+            if(myNodeCount > myMaxNodes){
+                collect();
+            }
+        }
+    }
+
+    /**
+     * Writes the board into row major states
+     * @param states array of at least rows * cols entries
+     */
+    void copyStates(byte[] states){
+        Arrays.fill(states, 0, myRows * myCols, (byte) 0);
+        write(myTile, myLevel, 0, 0, states);
+    }
+
+    /**
+     * Makes a Data object holding the board (to build a Grid from)
+     * @return
+     */
+    Data getData(){
+        byte[] states = new byte[myRows * myCols];
+        copyStates(states);
+        return new Data(myRows, myCols, states);
+    }
+
+    int getNodeCount(){
+        return myNodeCount;
+    }
+
+    //A 4 x 4 block of tiles is stepped, the center of the result lines up with one tile again
+    private Node jump(Node tile, int stepLog){
+        myStepLog = stepLog;
+        Node twoByTwo = join(tile, tile, tile, tile);
+        return result(join(twoByTwo, twoByTwo, twoByTwo, twoByTwo)).myNW;
+    }
+
+    //Rows and columns past the board repeat it (sides smaller than the tile)
+    private Node build(byte[] states, int level, int row, int col){
+        if(level == 0){
+            return (states[(row % myRows) * myCols + (col % myCols)] == 1) ? myAlive : myDead;
+        }
+        int half = 1 << (level - 1);
+        return join(build(states, level - 1, row, col), build(states, level - 1, row, col + half),
+                build(states, level - 1, row + half, col), build(states, level - 1, row + half, col + half));
+    }
+
+    private void write(Node node, int level, int row, int col, byte[] states){
+        if(row >= myRows || col >= myCols || node == empty(level)){
+            return;
+        }
+        if(level == 0){
+            states[row * myCols + col] = 1;
+            return;
+        }
+        int half = 1 << (level - 1);
+        write(node.myNW, level - 1, row, col, states);
+        write(node.myNE, level - 1, row, col + half, states);
+        write(node.mySW, level - 1, row + half, col, states);
+        write(node.mySE, level - 1, row + half, col + half, states);
+    }
+
+    /**
+     * Center half of the node, min(2^(level - 2), 2^stepLog) generations later
+     * The node is split into 9 overlapping sub nodes whose results overlap into 4, whose results are the center
+     */
+    private Node result(Node node){
+        int step = Math.min(node.myLevel - BASE_LEVEL, myStepLog);
+        if(node.myResult != null && node.myResultStep == step){
+            return node.myResult;
+        }
+        Node result;
+        if(node.myLevel == BASE_LEVEL){
+            result = baseResult(node);
+        }
+        else{
+            boolean full = step == node.myLevel - BASE_LEVEL;
+            Node[] parts = {
+                    node.myNW, horizontal(node.myNW, node.myNE), node.myNE,
+                    vertical(node.myNW, node.mySW), center(node), vertical(node.myNE, node.mySE),
+                    node.mySW, horizontal(node.mySW, node.mySE), node.mySE};
+            for(int k = 0; k < parts.length; k++){
+                parts[k] = full ? result(parts[k]) : center(parts[k]);
+            }
+            result = join(
+                    result(join(parts[0], parts[1], parts[3], parts[4])),
+                    result(join(parts[1], parts[2], parts[4], parts[5])),
+                    result(join(parts[3], parts[4], parts[6], parts[7])),
+                    result(join(parts[4], parts[5], parts[7], parts[8])));
+        }
+        node.myResult = result;
+        node.myResultStep = step;
+        return result;
+    }
+
+    //4 x 4 cells, the center 2 x 2 one generation later
+    private Node baseResult(Node node){
+        boolean[][] cells = new boolean[BASE_SIZE][BASE_SIZE];
+        Node[] quadrants = {node.myNW, node.myNE, node.mySW, node.mySE};
+        for(int q = 0; q < quadrants.length; q++){
+            int row = (q / 2) * 2;
+            int col = (q % 2) * 2;
+            cells[row][col] = quadrants[q].myNW.isAlive;
+            cells[row][col + 1] = quadrants[q].myNE.isAlive;
+            cells[row + 1][col] = quadrants[q].mySW.isAlive;
+            cells[row + 1][col + 1] = quadrants[q].mySE.isAlive;
+        }
+        Node[] next = new Node[BASE_SIZE];
+        for(int i = 1; i <= 2; i++){
+            for(int j = 1; j <= 2; j++){
+                int count = 0;
+                for(int x = i - 1; x <= i + 1; x++){
+                    for(int y = j - 1; y <= j + 1; y++){
+                        if((x != i || y != j) && cells[x][y]){
+                            count++;
+                        }
+                    }
+                }
+                next[(i - 1) * 2 + (j - 1)] = nextState(cells[i][j], count) ? myAlive : myDead;
+            }
+        }
+        return join(next[0], next[1], next[2], next[3]);
+    }
+
+    private boolean nextState(boolean alive, int count){
+        for(int wanted : alive ? mySurvive : myRevive){
+            if(count == wanted){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Same level node straddling the border between a west and an east node
+    private Node horizontal(Node west, Node east){
+        return join(west.myNE, east.myNW, west.mySE, east.mySW);
+    }
+
+    private Node vertical(Node north, Node south){
+        return join(north.mySW, north.mySE, south.myNW, south.myNE);
+    }
+
+    private Node center(Node node){
+        return join(node.myNW.mySE, node.myNE.mySW, node.mySW.myNE, node.mySE.myNW);
+    }
+
+    private Node empty(int level){
+        while(myEmpty.size() <= level){
+            Node smaller = myEmpty.get(myEmpty.size() - 1);
+            myEmpty.add(join(smaller, smaller, smaller, smaller));
+        }
+        return myEmpty.get(level);
+    }
+
+    //Canonical node for these children, so equal patterns are the same object and share their results
+    //Open addressing on the children's ids, a new node is only made when the pattern has not been seen
+    //A single jump that overflows the table twice over forgets the table, later nodes are then only shared with each other
+    private Node join(Node nw, Node ne, Node sw, Node se){
+        if(myNodeCount > 2 * myMaxNodes){
+            Arrays.fill(myTable, null);
+            myNodeCount = 0;
+        }
+        int mask = myTable.length - 1;
+        for(int k = firstSlot(nw, ne, sw, se); ; k = (k + 1) & mask){
+            Node node = myTable[k];
+            if(node == null){
+                node = new Node(nw, ne, sw, se, myNextId++);
+                myTable[k] = node;
+                myNodeCount++;
+                if(2 * myNodeCount > myTable.length){
+                    grow();
+                }
+                return node;
+            }
+            if(node.myNW == nw && node.myNE == ne && node.mySW == sw && node.mySE == se){
+                return node;
+            }
+        }
+    }
+
+    //Mixes the children's ids so neighboring ids still spread over the whole table
+    private int firstSlot(Node nw, Node ne, Node sw, Node se){
+        long mixed = ((nw.myId * HASH_MULTIPLIER + ne.myId) * HASH_MULTIPLIER + sw.myId) * HASH_MULTIPLIER + se.myId;
+        mixed *= HASH_MULTIPLIER;
+        return (int) (mixed ^ (mixed >>> HASH_SHIFT)) & (myTable.length - 1);
+    }
+
+    private void grow(){
+        Node[] old = myTable;
+        myTable = new Node[old.length * 2];
+        myNodeCount = 0;
+        for(Node node : old){
+            if(node != null){
+                insert(node);
+            }
+        }
+    }
+
+    private void insert(Node node){
+        int mask = myTable.length - 1;
+        int k = firstSlot(node.myNW, node.myNE, node.mySW, node.mySE);
+        while(myTable[k] != null){
+            k = (k + 1) & mask;
+        }
+        myTable[k] = node;
+        myNodeCount++;
+    }
+
+    //Rebuilds the current board into a fresh table, everything else (including remembered results) can be garbage collected
+    private void collect(){
+        Map<Node, Node> copies = new IdentityHashMap<>();
+        myTable = new Node[INITIAL_TABLE_SIZE];
+        myNodeCount = 0;
+        myEmpty.subList(1, myEmpty.size()).clear();
+        myTile = copy(myTile, copies);
+    }
+
+    private Node copy(Node node, Map<Node, Node> copies){
+        if(node.myLevel == 0){
+            return node;
+        }
+        Node copied = copies.get(node);
+        if(copied == null){
+            copied = join(copy(node.myNW, copies), copy(node.myNE, copies), copy(node.mySW, copies), copy(node.mySE, copies));
+            copies.put(node, copied);
+        }
+        return copied;
+    }
+
+    //Square block of 2^level cells, children are canonical so two nodes with the same children are the same pattern
+    private static class Node {
+        private final Node myNW;
+        private final Node myNE;
+        private final Node mySW;
+        private final Node mySE;
+        private final int myLevel;
+        private final boolean isAlive;
+        private final long myId;
+        private Node myResult;
+        private int myResultStep;
+
+        private Node(boolean alive, long id){
+            myNW = null;
+            myNE = null;
+            mySW = null;
+            mySE = null;
+            myLevel = 0;
+            isAlive = alive;
+            myId = id;
+        }
+
+        private Node(Node nw, Node ne, Node sw, Node se, long id){
+            myNW = nw;
+            myNE = ne;
+            mySW = sw;
+            mySE = se;
+            myLevel = nw.myLevel + 1;
+            isAlive = false;
+            myId = id;
+        }
+    }
+}
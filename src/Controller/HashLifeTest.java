@@ -0,0 +1,92 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashLifeTest {
+
+    //Grid stepped one generation at a time against the same grid jumping with advanceTo
+    void checkJumpMatchesStepping(int rows, int cols, long generations){
+        Grid stepped = new Grid(new Data(new double[]{0.6, 0.4}, rows, cols, new Random(rows * cols)));
+        stepped.fillCellGrid("GameOfLife");
+        Grid jumped = new Grid(new Data(new double[]{0.6, 0.4}, rows, cols, new Random(rows * cols)));
+        jumped.fillCellGrid("GameOfLife");
+        for(long gen = 0; gen < generations; gen++){
+            stepped.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+        }
+        jumped.advanceTo(generations, CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+
+        assertEquals(generations, jumped.getGeneration());
+        for(int i=0; i<rows; i++){
+            for(int j=0; j<cols; j++){
+                assertEquals(stepped.getCellState(i, j), jumped.getCellState(i, j));
+            }
+        }
+    }
+
+    @Test
+    void squareBoardMatchesStepping(){
+        checkJumpMatchesStepping(32, 32, 300);
+    }
+
+    @Test
+    void tinyAndUnevenBoardsMatchStepping(){
+        checkJumpMatchesStepping(1, 1, 5);
+        checkJumpMatchesStepping(2, 8, 13);
+        checkJumpMatchesStepping(16, 4, 77);
+    }
+
+    @Test
+    void gliderComesBack(){
+        //A glider moves one cell diagonally every 4 generations, so on a 16 x 16 torus it is back after 64
+        byte[] states = new byte[16 * 16];
+        int[][] glider = {{0, 1}, {1, 2}, {2, 0}, {2, 1}, {2, 2}};
+        for(int[] cell : glider){
+            states[cell[0] * 16 + cell[1]] = 1;
+        }
+        HashLife life = new HashLife(new int[]{3}, new int[]{2, 3});
+        life.load(states, 16, 16);
+        life.advance(64L * 1000000);
+
+        byte[] actual = new byte[16 * 16];
+        life.copyStates(actual);
+        assertArrayEquals(states, actual);
+    }
+
+    @Test
+    void smallNodeTableStillMatches(){
+        Grid grid = new Grid(new Data(new double[]{0.6, 0.4}, 32, 32, new Random(7)));
+        grid.fillCellGrid("GameOfLife");
+        HashLife life = new HashLife(100, new int[]{3}, new int[]{2, 3});
+        life.load(grid);
+        life.advance(150);
+        for(int k=0; k<150; k++){
+            grid.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+        }
+
+        Data data = life.getData();
+        for(int i=0; i<32; i++){
+            for(int j=0; j<32; j++){
+                assertEquals(grid.getCellState(i, j), data.getStateAt(i, j));
+            }
+        }
+    }
+
+    @Test
+    void onlyPowerOfTwoSides(){
+        assertTrue(HashLife.supports(64, 8));
+        assertFalse(HashLife.supports(50, 64));
+    }
+
+    @Test
+    void cannotGoBack(){
+        Grid grid = new Grid(new Data("DataTest_Config_1.csv"));
+        grid.fillCellGrid("GameOfLife");
+        grid.advanceTo(3, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+
+        assertThrows(SimulationException.class, () -> grid.advanceTo(2, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE));
+    }
+}
@@ -0,0 +1,84 @@
+package Controller;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Set of flat locations (row * cols + col) with O(1) add, remove, contains and uniformly random pick
+ * Members are packed at the front of one array and every location remembers its index in that array,
+ * so removing moves the last member into the hole instead of shifting anything
+ */
+class IndexedCellSet {
+    private static final int ABSENT = -1;
+
+    private int[] myMembers;
+    private int[] myIndexes;
+    private int mySize;
+
+    /**
+     * Constructor makes an empty set
+     * @param locations number of locations in the grid (members are 0 .. locations - 1)
+     */
+    IndexedCellSet(int locations){
+        myMembers = new int[locations];
+        myIndexes = new int[locations];
+        Arrays.fill(myIndexes, ABSENT);
+    }
+
+    /**
+     * @param location
+     * @return false if it was already in the set
+     */
+    boolean add(int location){
+        if(myIndexes[location] != ABSENT){
+            return false;
+        }
+        myMembers[mySize] = location;
+        myIndexes[location] = mySize;
+        mySize++;
+        return true;
+    }
+
+    /**
+     * @param location
+     * @return false if it was not in the set
+     */
+    boolean remove(int location){
+        int index = myIndexes[location];
+        if(index == ABSENT){
+            return false;
+        }
+        mySize--;
+        int last = myMembers[mySize];
+        myMembers[index] = last;
+        myIndexes[last] = index;
+        myIndexes[location] = ABSENT;
+        return true;
+    }
+
+    boolean contains(int location){
+        return myIndexes[location] != ABSENT;
+    }
+
+    int size(){
+        return mySize;
+    }
+
+    /**
+     * Member at a position of the packed array (positions change as members are removed)
+     * @param index 0 .. size() - 1
+     * @return
+     */
+    int get(int index){
+        return myMembers[index];
+    }
+
+    /**
+     * Picks one member, every member equally likely
+     * @param random
+     * @return
+     */
+    int pickRandom(SplittableRandom random){
+        return myMembers[random.nextInt(mySize)];
+    }
+}
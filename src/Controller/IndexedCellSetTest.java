@@ -0,0 +1,47 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedCellSetTest {
+
+    @Test
+    void addAndRemove(){
+        IndexedCellSet set = new IndexedCellSet(10);
+        set.add(3);
+        set.add(7);
+        set.add(5);
+
+        assertFalse(set.add(7));
+        assertTrue(set.remove(3));
+        assertFalse(set.remove(3));
+
+        var expected = 2;
+        var actual = set.size();
+        assertEquals(expected, actual);
+        assertTrue(set.contains(7) && set.contains(5) && !set.contains(3));
+    }
+
+    @Test
+    void removedMembersAreNeverPicked(){
+        IndexedCellSet set = new IndexedCellSet(100);
+        for(int loc = 0; loc < 100; loc++){
+            set.add(loc);
+        }
+        for(int loc = 0; loc < 100; loc += 2){
+            set.remove(loc);
+        }
+        SplittableRandom random = new SplittableRandom(1);
+        boolean[] picked = new boolean[100];
+        for(int k = 0; k < 2000; k++){
+            picked[set.pickRandom(random)] = true;
+        }
+
+        for(int loc = 0; loc < 100; loc++){
+            assertEquals(loc % 2 == 1, picked[loc]);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package Controller;
+
+import java.util.Arrays;
+
+/**
+ * Game of Life on square cells with the complete neighborhood, stored 64 cells to a long (bit j of a row is column j)
+ * Live neighbors of a whole word are counted at once with bit parallel adders and the revive/survive counts
+ * are applied to all 64 cells together, so a step costs a handful of operations per 64 cells
+ * Edges follow the same rules as Neighbors.edgeCheck: finite rows and columns stop at the border,
+ * toroidal ones wrap, semitoroidal ones wrap except across a corner
+ * Only holds states 0 and 1 (Grid keeps anything else on the general path)
+ */
+class LifeBitBoard {
+    private static final int WORD_BITS = 64;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = WORD_BITS - 1;
+    private static final int COUNT_BITS = 4;
+
+    private int myRows;
+    private int myCols;
+    private int myWords;
+    private long myLastMask;
+    private int myLastBit;
+    private EdgeType myEdgeType;
+    private long[] myCurrent;
+    private long[] myNext;
+    private int[] myReviveCounts;
+    private int[] mySurviveCounts;
+    private long[] myReviveMasks;
+    private long[] mySurviveMasks;
+
+    /**
+     * Constructor, every cell starts dead
+     * @param rows
+     * @param cols
+     * @param edgeType
+     * @param revive live neighbor counts that bring a dead cell to life
+     * @param survive live neighbor counts that keep a live cell alive
+     */
+    LifeBitBoard(int rows, int cols, EdgeType edgeType, int[] revive, int[] survive){
+        myRows = rows;
+        myCols = cols;
+        myWords = (cols + WORD_MASK) >>> WORD_SHIFT;
+        myLastBit = (cols - 1) & WORD_MASK;
+        myLastMask = (myLastBit == WORD_MASK) ? -1L : (1L << (myLastBit + 1)) - 1;
+        myEdgeType = edgeType;
+        myCurrent = new long[rows * myWords];
+        myNext = new long[rows * myWords];
+        myReviveCounts = revive;
+        mySurviveCounts = survive;
+        myReviveMasks = countMasks(myReviveCounts);
+        mySurviveMasks = countMasks(survive);
+    }
+
+    //Bit k of the count is all ones in mask k where the count should have it set, one mask per wanted count
+    private long[] countMasks(int... counts){
+        long[] masks = new long[counts.length * COUNT_BITS];
+        for(int n = 0; n < counts.length; n++){
+            for(int k = 0; k < COUNT_BITS; k++){
+                masks[n * COUNT_BITS + k] = ((counts[n] >> k & 1) == 1) ? -1L : 0L;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Loads row major states (state of (row, col) at row * cols + col)
+     * @param states
+     * @return false (and nothing loaded) if any state is not 0 or 1
+     */
+    boolean load(byte[] states){
+        for(byte state : states){
+            if(state != 0 && state != 1){
+                return false;
+            }
+        }
+        Arrays.fill(myCurrent, 0L);
+        for(int i = 0; i < myRows; i++){
+            for(int j = 0; j < myCols; j++){
+                if(states[i * myCols + j] == 1){
+                    myCurrent[i * myWords + (j >>> WORD_SHIFT)] |= 1L << (j & WORD_MASK);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets one cell (user clicks)
+     * @param row
+     * @param col
+     * @param alive
+     */
+    void set(int row, int col, boolean alive){
+        int word = row * myWords + (col >>> WORD_SHIFT);
+        long bit = 1L << (col & WORD_MASK);
+        myCurrent[word] = alive ? (myCurrent[word] | bit) : (myCurrent[word] & ~bit);
+    }
+
+    /**
+     * getter
+     * @param row
+     * @param col
+     * @return 1 if the cell is alive, otherwise 0
+     */
+    int get(int row, int col){
+        return (int) (myCurrent[row * myWords + (col >>> WORD_SHIFT)] >>> (col & WORD_MASK)) & 1;
+    }
+
+    boolean matches(EdgeType edgeType){
+        return myEdgeType == edgeType;
+    }
+
+    void setEdgeType(EdgeType edgeType){
+        myEdgeType = edgeType;
+    }
+
+    /**
+     * Moves every cell to its next state
+     */
+    void step(){
+        boolean wraps = myEdgeType != EdgeType.FINITE;
+        for(int i = 0; i < myRows; i++){
+            int above = (i > 0) ? i - 1 : (wraps ? myRows - 1 : -1);
+            int below = (i < myRows - 1) ? i + 1 : (wraps ? 0 : -1);
+            stepRow(i, above, below, wraps);
+        }
+        if(myEdgeType == EdgeType.SEMITOROIDAL){
+            fixCorners();
+        }
+        long[] temp = myCurrent;
+        myCurrent = myNext;
+        myNext = temp;
+    }
+
+    //Rows outside a finite grid (index -1) read as all dead
+    private void stepRow(int row, int above, int below, boolean wraps){
+        int start = row * myWords;
+        for(int w = 0; w < myWords; w++){
+            long a = word(above, w);
+            long aw = west(above, w, a, wraps);
+            long ae = east(above, w, a, wraps);
+            long c = myCurrent[start + w];
+            long cw = west(row, w, c, wraps);
+            long ce = east(row, w, c, wraps);
+            long b = word(below, w);
+            long bw = west(below, w, b, wraps);
+            long be = east(below, w, b, wraps);
+
+            //Three full adders on the rows above and below and a half adder on the row itself give weights 1 and 2
+            long aOnes = aw ^ a ^ ae;
+            long aTwos = (aw & a) | (ae & (aw ^ a));
+            long bOnes = bw ^ b ^ be;
+            long bTwos = (bw & b) | (be & (bw ^ b));
+            long cOnes = cw ^ ce;
+            long cTwos = cw & ce;
+            long bit0 = aOnes ^ bOnes ^ cOnes;
+            long carry = (aOnes & bOnes) | (cOnes & (aOnes ^ bOnes));
+            //Four weight 2 carries add up to bits 1, 2 and 3 of the count
+            long twos = aTwos ^ bTwos ^ cTwos;
+            long fours = (aTwos & bTwos) | (cTwos & (aTwos ^ bTwos));
+            long bit1 = twos ^ carry;
+            long fourCarry = twos & carry;
+            long bit2 = fours ^ fourCarry;
+            long bit3 = fours & fourCarry;
+
+            long revive = countIs(myReviveMasks, bit0, bit1, bit2, bit3);
+            long survive = countIs(mySurviveMasks, bit0, bit1, bit2, bit3);
+            long next = (c & survive) | (~c & revive);
+            myNext[start + w] = (w == myWords - 1) ? next & myLastMask : next;
+        }
+    }
+
+    //All ones where the 4 bit count equals any of the counts in masks
+    private long countIs(long[] masks, long bit0, long bit1, long bit2, long bit3){
+        long any = 0;
+        for(int k = 0; k < masks.length; k += COUNT_BITS){
+            any |= ~(bit0 ^ masks[k]) & ~(bit1 ^ masks[k + 1]) & ~(bit2 ^ masks[k + 2]) & ~(bit3 ^ masks[k + 3]);
+        }
+        return any;
+    }
+
+    private long word(int row, int w){
+        return (row < 0) ? 0L : myCurrent[row * myWords + w];
+    }
+
+    //Bit j holds the cell at column j - 1, column -1 is the last column when wrapping
+    private long west(int row, int w, long x, boolean wraps){
+        if(row < 0){
+            return 0L;
+        }
+        long carryIn;
+        if(w > 0){
+            carryIn = myCurrent[row * myWords + w - 1] >>> WORD_MASK;
+        }
+        else{
+            carryIn = wraps ? (myCurrent[row * myWords + myWords - 1] >>> myLastBit) & 1L : 0L;
+        }
+        return (x << 1) | carryIn;
+    }
+
+    //Bit j holds the cell at column j + 1, column cols is the first column when wrapping
+    private long east(int row, int w, long x, boolean wraps){
+        if(row < 0){
+            return 0L;
+        }
+        if(w < myWords - 1){
+            return (x >>> 1) | (myCurrent[row * myWords + w + 1] << WORD_MASK);
+        }
+        long wrapped = wraps ? myCurrent[row * myWords] & 1L : 0L;
+        return (x >>> 1) | (wrapped << myLastBit);
+    }
+
+    //Semitoroidal corners do not see neighbors that wrap both rows and columns, recount those (at most 4) cells one by one
+    private void fixCorners(){
+        int[] rows = {0, myRows - 1};
+        int[] cols = {0, myCols - 1};
+        for(int row : rows){
+            for(int col : cols){
+                int count = 0;
+                for(int x = row - 1; x <= row + 1; x++){
+                    for(int y = col - 1; y <= col + 1; y++){
+                        int wrappedX = (x < 0) ? myRows - 1 : (x >= myRows ? 0 : x);
+                        int wrappedY = (y < 0) ? myCols - 1 : (y >= myCols ? 0 : y);
+                        if((x != row || y != col) && (wrappedX == x || wrappedY == y)){
+                            count += get(wrappedX, wrappedY);
+                        }
+                    }
+                }
+                int word = row * myWords + (col >>> WORD_SHIFT);
+                long bit = 1L << (col & WORD_MASK);
+                boolean alive = hasCount((get(row, col) == 1) ? mySurviveCounts : myReviveCounts, count);
+                myNext[word] = alive ? (myNext[word] | bit) : (myNext[word] & ~bit);
+            }
+        }
+    }
+
+    private boolean hasCount(int[] counts, int count){
+        for(int wanted : counts){
+            if(wanted == count){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes every cell that differs from the given row major states into them and lists it as changed
+     * @param states state buffer to bring up to date
+     * @param changes cleared, then filled in location order
+     */
+    void findChanges(StateBuffer states, ChangeList changes){
+        byte[] current = states.currentArray();
+        changes.clear();
+        for(int i = 0; i < myRows; i++){
+            for(int w = 0; w < myWords; w++){
+                long diff = myCurrent[i * myWords + w] ^ myNext[i * myWords + w];
+                while(diff != 0){
+                    int j = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(diff);
+                    int location = i * myCols + j;
+                    if(current[location] != get(i, j)){
+                        states.set(location, get(i, j));
+                        changes.add(location);
+                    }
+                    diff &= diff - 1;
+                }
+            }
+        }
+    }
+}
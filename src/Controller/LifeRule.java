@@ -0,0 +1,107 @@
+package Controller;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Life-like rule in B/S notation (ex: B3/S23 is Conway's Game of Life, B36/S23 is HighLife)
+ * The digits after B are the live neighbor counts that bring a dead cell to life,
+ * the digits after S are the counts that keep a live cell alive, every other count leaves or makes the cell dead
+ * Read from the optional Rule key of a Game of Life properties file
+ */
+public class LifeRule {
+    private static final int MAX_COUNT = 8;
+
+    private String myText;
+    private int[] myBorn;
+    private int[] mySurvive;
+
+    /**
+     * Constructor
+     * @param born
+     * @param survive
+     */
+    public LifeRule(int[] born, int[] survive){
+        myBorn = born.clone();
+        mySurvive = survive.clone();
+        myText = "B" + digits(myBorn) + "/S" + digits(mySurvive);
+    }
+
+    /**
+     * Parses B/S notation (case and spaces do not matter, either part may have no digits)
+     * @param rule
+     * @return
+     */
+    public static LifeRule parse(String rule){
+        if(rule == null){
+            throw new SimulationException("Invalid rule null, expected B/S notation like B3/S23");
+        }
+        String[] parts = rule.replace(" ", "").toUpperCase(Locale.ROOT).split("/", -1);
+        if(parts.length != 2 || !parts[0].startsWith("B") || !parts[1].startsWith("S")){
+            throw new SimulationException("Invalid rule %s, expected B/S notation like B3/S23", rule);
+        }
+        return new LifeRule(counts(parts[0].substring(1), rule), counts(parts[1].substring(1), rule));
+    }
+
+    private static int[] counts(String digits, String rule){
+        boolean[] seen = new boolean[MAX_COUNT + 1];
+        for(char c : digits.toCharArray()){
+            if(c < '0' || c > '0' + MAX_COUNT){
+                throw new SimulationException("Invalid rule %s, neighbor counts are single digits 0 to %d", rule, MAX_COUNT);
+            }
+            seen[c - '0'] = true;
+        }
+        int[] counts = new int[MAX_COUNT + 1];
+        int size = 0;
+        for(int n = 0; n <= MAX_COUNT; n++){
+            if(seen[n]){
+                counts[size++] = n;
+            }
+        }
+        return Arrays.copyOf(counts, size);
+    }
+
+    private static String digits(int[] counts){
+        StringBuilder text = new StringBuilder();
+        for(int n : counts){
+            text.append(n);
+        }
+        return text.toString();
+    }
+
+    /**
+     * getter
+     * @return live neighbor counts that bring a dead cell to life
+     */
+    public int[] getBorn(){
+        return myBorn.clone();
+    }
+
+    /**
+     * getter
+     * @return live neighbor counts that keep a live cell alive
+     */
+    public int[] getSurvive(){
+        return mySurvive.clone();
+    }
+
+    /**
+     * Next state of a cell
+     * @param alive
+     * @param liveCount
+     * @return
+     */
+    public boolean isAliveNext(boolean alive, int liveCount){
+        for(int n : alive ? mySurvive : myBorn){
+            if(n == liveCount){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString(){
+        return myText;
+    }
+}
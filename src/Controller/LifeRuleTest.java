@@ -0,0 +1,43 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LifeRuleTest {
+
+    @Test
+    void parsesHighLife(){
+        LifeRule rule = LifeRule.parse("b63/S23");
+
+        assertArrayEquals(new int[]{3, 6}, rule.getBorn());
+        assertArrayEquals(new int[]{2, 3}, rule.getSurvive());
+        assertEquals("B36/S23", rule.toString());
+    }
+
+    @Test
+    void appliesCounts(){
+        LifeRule rule = LifeRule.parse("B3/S23");
+
+        assertTrue(rule.isAliveNext(false, 3));
+        assertFalse(rule.isAliveNext(false, 2));
+        assertTrue(rule.isAliveNext(true, 2));
+        assertFalse(rule.isAliveNext(true, 4));
+    }
+
+    @Test
+    void emptyPartsAllowed(){
+        LifeRule rule = LifeRule.parse("B2/S");
+
+        var expected = 0;
+        var actual = rule.getSurvive().length;
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void invalidRules(){
+        assertThrows(SimulationException.class, () -> LifeRule.parse("23/3"));
+        assertThrows(SimulationException.class, () -> LifeRule.parse("B39/S2"));
+        assertThrows(SimulationException.class, () -> LifeRule.parse(null));
+    }
+}
@@ -0,0 +1,342 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holds the neighbor locations of every cell in a grid for one (CellShape, EdgeType, NeighborhoodType) combination
+ * Built once when the combination is picked, then walked every step without creating any Neighbors objects or lists
+ * Cells away from the border all share the same offsets for their (row parity, col parity) class,
+ * only border cells (where the edge type matters) keep their own list of flat locations
+ * The reverse table (which cells have a location as their neighbor) is stored the same way with twice the margins
+ */
+public class NeighborTable {
+    //Widest neighborhood (triangles) reaches 1 row and 2 columns away
+    private static final int ROW_MARGIN = 1;
+    private static final int COL_MARGIN = 2;
+    private static final int PARITY_CLASSES = 4;
+    //A cell this far from the border is only a neighbor of interior cells
+    private static final int REVERSE_ROW_MARGIN = 2 * ROW_MARGIN;
+    private static final int REVERSE_COL_MARGIN = 2 * COL_MARGIN;
+
+    private int myRows;
+    private int myCols;
+    private CellShape myShape;
+    private EdgeType myEdgeType;
+    private NeighborhoodType myNeighborhoodType;
+    private boolean hasInterior;
+    private int[][] myClassOffsets;
+    private int[] myBorderStarts;
+    private int[] myBorderNeighbors;
+    private int myMaxNeighbors;
+    private boolean hasReverseInterior;
+    private int[][] myReverseClassOffsets;
+    private int[] myReverseBorderStarts;
+    private int[] myReverseBorderCells;
+    private int myMaxReverseNeighbors;
+
+    /**
+     * Constructor computes the offset tables using the existing Neighbors classes
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     */
+    public NeighborTable(int rows, int cols, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        myRows = rows;
+        myCols = cols;
+        myShape = shape;
+        myEdgeType = edgeType;
+        myNeighborhoodType = neighborhoodType;
+        hasInterior = rows >= 2 * ROW_MARGIN + 2 && cols >= 2 * COL_MARGIN + 2;
+        if(hasInterior){
+            fillClassOffsets();
+        }
+        fillBorderTable();
+    }
+
+    /**
+     * Checks if this table was built for the given combination (so it does not need to be rebuilt)
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     * @return
+     */
+    public boolean matches(CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        return myShape == shape && myEdgeType == edgeType && myNeighborhoodType == neighborhoodType;
+    }
+
+    /**
+     * Writes the flat locations (row * cols + col) of the cell's neighbors into the reusable array
+     * Order is the same as the Neighbors classes return them
+     * @param row
+     * @param col
+     * @param neighbors array of at least getMaxNeighbors() entries
+     * @return number of neighbors written
+     */
+    public int getNeighbors(int row, int col, int[] neighbors){
+        int location = row * myCols + col;
+        if(isInterior(row, col)){
+            int[] offsets = myClassOffsets[parityClass(row, col)];
+            for(int k = 0; k < offsets.length; k++){
+                neighbors[k] = location + offsets[k];
+            }
+            return offsets.length;
+        }
+        int border = borderOrdinal(row, col, ROW_MARGIN, COL_MARGIN, hasInterior);
+        int start = myBorderStarts[border];
+        int count = myBorderStarts[border + 1] - start;
+        System.arraycopy(myBorderNeighbors, start, neighbors, 0, count);
+        return count;
+    }
+
+    /**
+     * Writes the flat locations of every cell that has this location among its neighbors
+     * Edge rules are not symmetric (semitoroidal corners, triangle wrapping) so this is not the same list as getNeighbors,
+     * a cell listing the location twice shows up twice
+     * The reverse table is built the first time it is asked for since only activity tracking needs it
+     * @param location
+     * @param cells array of at least getMaxReverseNeighbors() entries
+     * @return number of cells written
+     */
+    public int getReverseNeighbors(int location, int[] cells){
+        buildReverseTable();
+        int row = location / myCols;
+        int col = location % myCols;
+        if(isReverseInterior(row, col)){
+            int[] offsets = myReverseClassOffsets[parityClass(row, col)];
+            for(int k = 0; k < offsets.length; k++){
+                cells[k] = location + offsets[k];
+            }
+            return offsets.length;
+        }
+        int border = borderOrdinal(row, col, REVERSE_ROW_MARGIN, REVERSE_COL_MARGIN, hasReverseInterior);
+        int start = myReverseBorderStarts[border];
+        int count = myReverseBorderStarts[border + 1] - start;
+        System.arraycopy(myReverseBorderCells, start, cells, 0, count);
+        return count;
+    }
+
+    /**
+     * getter
+     * @return largest number of cells any location is a neighbor of (size needed for the getReverseNeighbors array)
+     */
+    public int getMaxReverseNeighbors(){
+        buildReverseTable();
+        return myMaxReverseNeighbors;
+    }
+
+    /**
+     * getter
+     * @return largest number of neighbors any cell has (size needed for the getNeighbors array)
+     */
+    public int getMaxNeighbors(){
+        return myMaxNeighbors;
+    }
+
+    public int getMyRows(){
+        return myRows;
+    }
+
+    public int getMyCols(){
+        return myCols;
+    }
+
+    public CellShape getShape(){
+        return myShape;
+    }
+
+    public EdgeType getEdgeType(){
+        return myEdgeType;
+    }
+
+    public NeighborhoodType getNeighborhoodType(){
+        return myNeighborhoodType;
+    }
+
+    /**
+     * Helper method gets correct neighborhood for a cell (moved here from Grid)
+     * @param x
+     * @param y
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     * @return
+     */
+    static Neighbors neighborhoodPicker(int x, int y, int rows, int cols, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        if(neighborhoodType == NeighborhoodType.COMPLETE){
+            return new CompleteNeighbors(x, y, rows, cols, shape, edgeType);
+        }
+        else if(neighborhoodType == NeighborhoodType.CARDINAL){
+            return new CardinalNeighbors(x, y, rows, cols, shape, edgeType);
+        }
+        else{ //Corner neighborhoodType
+            return new CornerNeighbors(x, y, rows, cols, shape, edgeType);
+        }
+    }
+
+    //One representative interior cell per parity class gives the offsets shared by the whole class
+    private void fillClassOffsets(){
+        myClassOffsets = new int[PARITY_CLASSES][];
+        for(int rowParity = 0; rowParity < 2; rowParity++){
+            for(int colParity = 0; colParity < 2; colParity++){
+                int row = firstWithParity(ROW_MARGIN, rowParity);
+                int col = firstWithParity(COL_MARGIN, colParity);
+                List<Integer> locations = neighborhoodPicker(row, col, myRows, myCols, myShape, myEdgeType, myNeighborhoodType).getMyNeighbors();
+                int[] offsets = new int[locations.size()];
+                for(int k = 0; k < offsets.length; k++){
+                    offsets[k] = locations.get(k) - (row * myCols + col);
+                }
+                myClassOffsets[parityClass(row, col)] = offsets;
+                myMaxNeighbors = Math.max(myMaxNeighbors, offsets.length);
+            }
+        }
+    }
+
+    //Border cells are visited in row major order which is the same order borderOrdinal counts them in
+    private void fillBorderTable(){
+        List<List<Integer>> borderLists = new ArrayList<>();
+        int total = 0;
+        for(int i = 0; i < myRows; i++){
+            for(int j = 0; j < myCols; j++){
+                if(!isInterior(i, j)){
+                    List<Integer> locations = neighborhoodPicker(i, j, myRows, myCols, myShape, myEdgeType, myNeighborhoodType).getMyNeighbors();
+                    borderLists.add(locations);
+                    total += locations.size();
+                }
+            }
+        }
+        myBorderStarts = new int[borderLists.size() + 1];
+        myBorderNeighbors = new int[total];
+        int next = 0;
+        for(int b = 0; b < borderLists.size(); b++){
+            myBorderStarts[b] = next;
+            for(int loc : borderLists.get(b)){
+                myBorderNeighbors[next++] = loc;
+            }
+            myMaxNeighbors = Math.max(myMaxNeighbors, borderLists.get(b).size());
+        }
+        myBorderStarts[borderLists.size()] = next;
+    }
+
+    private void buildReverseTable(){
+        if(myReverseBorderStarts != null){
+            return;
+        }
+        hasReverseInterior = hasInterior && myRows >= 2 * REVERSE_ROW_MARGIN + 2 && myCols >= 2 * REVERSE_COL_MARGIN + 2;
+        if(hasReverseInterior){
+            fillReverseClassOffsets();
+        }
+        fillReverseBorderTable();
+    }
+
+    //Cell y is a neighbor of interior cell x = y - offset when offset is in x's class, so check every class's offsets against y's parity
+    private void fillReverseClassOffsets(){
+        myReverseClassOffsets = new int[PARITY_CLASSES][];
+        for(int rowParity = 0; rowParity < 2; rowParity++){
+            for(int colParity = 0; colParity < 2; colParity++){
+                List<Integer> reverse = new ArrayList<>();
+                for(int xRowParity = 0; xRowParity < 2; xRowParity++){
+                    for(int xColParity = 0; xColParity < 2; xColParity++){
+                        for(int offset : myClassOffsets[xRowParity * 2 + xColParity]){
+                            //Offsets reach at most COL_MARGIN columns so the row step is the closest multiple of cols
+                            int rowStep = (int) Math.round((double) offset / myCols);
+                            int colStep = offset - rowStep * myCols;
+                            if(Math.floorMod(rowParity - rowStep, 2) == xRowParity && Math.floorMod(colParity - colStep, 2) == xColParity){
+                                reverse.add(-offset);
+                            }
+                        }
+                    }
+                }
+                int[] offsets = new int[reverse.size()];
+                for(int k = 0; k < offsets.length; k++){
+                    offsets[k] = reverse.get(k);
+                }
+                myReverseClassOffsets[rowParity * 2 + colParity] = offsets;
+                myMaxReverseNeighbors = Math.max(myMaxReverseNeighbors, offsets.length);
+            }
+        }
+    }
+
+    //Counts then fills the reverse lists of border locations from the forward lists of every cell that can reach one
+    private void fillReverseBorderTable(){
+        int borderCells = hasReverseInterior ? myRows * myCols - (myRows - 2 * REVERSE_ROW_MARGIN) * (myCols - 2 * REVERSE_COL_MARGIN) : myRows * myCols;
+        myReverseBorderStarts = new int[borderCells + 1];
+        int[] neighbors = new int[myMaxNeighbors];
+        for(int pass = 0; pass < 2; pass++){
+            int[] next = (pass == 0) ? null : Arrays.copyOf(myReverseBorderStarts, borderCells);
+            for(int i = 0; i < myRows; i++){
+                for(int j = 0; j < myCols; j++){
+                    if(!reachesReverseBorder(i, j)){
+                        continue;
+                    }
+                    int count = getNeighbors(i, j, neighbors);
+                    for(int k = 0; k < count; k++){
+                        int row = neighbors[k] / myCols;
+                        int col = neighbors[k] % myCols;
+                        if(!isReverseInterior(row, col)){
+                            int border = borderOrdinal(row, col, REVERSE_ROW_MARGIN, REVERSE_COL_MARGIN, hasReverseInterior);
+                            if(pass == 0){
+                                myReverseBorderStarts[border + 1]++;
+                            }
+                            else{
+                                myReverseBorderCells[next[border]++] = i * myCols + j;
+                            }
+                        }
+                    }
+                }
+            }
+            if(pass == 0){
+                for(int b = 0; b < borderCells; b++){
+                    myMaxReverseNeighbors = Math.max(myMaxReverseNeighbors, myReverseBorderStarts[b + 1]);
+                    myReverseBorderStarts[b + 1] += myReverseBorderStarts[b];
+                }
+                myReverseBorderCells = new int[myReverseBorderStarts[borderCells]];
+            }
+        }
+    }
+
+    //Interior cells well inside the reverse interior only have neighbors there, everything else may list a reverse border location
+    private boolean reachesReverseBorder(int row, int col){
+        return !(isInterior(row, col) && row >= REVERSE_ROW_MARGIN + ROW_MARGIN && row < myRows - REVERSE_ROW_MARGIN - ROW_MARGIN
+                && col >= REVERSE_COL_MARGIN + COL_MARGIN && col < myCols - REVERSE_COL_MARGIN - COL_MARGIN);
+    }
+
+    private boolean isReverseInterior(int row, int col){
+        return hasReverseInterior && row >= REVERSE_ROW_MARGIN && row < myRows - REVERSE_ROW_MARGIN
+                && col >= REVERSE_COL_MARGIN && col < myCols - REVERSE_COL_MARGIN;
+    }
+
+    private boolean isInterior(int row, int col){
+        return hasInterior && row >= ROW_MARGIN && row < myRows - ROW_MARGIN && col >= COL_MARGIN && col < myCols - COL_MARGIN;
+    }
+
+    //Position of a border cell among all border cells (cells outside the margins) counted in row major order
+    private int borderOrdinal(int row, int col, int rowMargin, int colMargin, boolean interior){
+        if(!interior){
+            return row * myCols + col;
+        }
+        if(row < rowMargin){
+            return row * myCols + col;
+        }
+        int sideCells = 2 * colMargin;
+        int middleRows = myRows - 2 * rowMargin;
+        if(row < myRows - rowMargin){
+            int side = (col < colMargin) ? col : col - (myCols - sideCells);
+            return rowMargin * myCols + (row - rowMargin) * sideCells + side;
+        }
+        return rowMargin * myCols + middleRows * sideCells + (row - (myRows - rowMargin)) * myCols + col;
+    }
+
+    private int parityClass(int row, int col){
+        return (row % 2) * 2 + (col % 2);
+    }
+
+    private int firstWithParity(int start, int parity){
+        return start + ((start + parity) % 2);
+    }
+}
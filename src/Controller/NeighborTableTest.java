@@ -0,0 +1,105 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NeighborTableTest {
+
+    //Table has to give the exact same locations (in the same order) as the Neighbors classes for every cell
+    void checkMatchesNeighbors(int rows, int cols){
+        for(CellShape shape : CellShape.values()){
+            for(EdgeType edgeType : EdgeType.values()){
+                for(NeighborhoodType neighborhoodType : NeighborhoodType.values()){
+                    NeighborTable table = new NeighborTable(rows, cols, shape, edgeType, neighborhoodType);
+                    int[] locations = new int[table.getMaxNeighbors()];
+                    for(int i=0; i<rows; i++){
+                        for(int j=0; j<cols; j++){
+                            List<Integer> expected = NeighborTable.neighborhoodPicker(i, j, rows, cols, shape, edgeType, neighborhoodType).getMyNeighbors();
+                            int count = table.getNeighbors(i, j, locations);
+                            assertEquals(expected.size(), count);
+                            for(int k=0; k<count; k++){
+                                assertEquals((int) expected.get(k), locations[k]);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    //Reverse lists have to hold exactly the cells that list the location as a neighbor (as many times as they list it)
+    void checkReverseMatchesNeighbors(int rows, int cols){
+        for(CellShape shape : CellShape.values()){
+            for(EdgeType edgeType : EdgeType.values()){
+                for(NeighborhoodType neighborhoodType : NeighborhoodType.values()){
+                    NeighborTable table = new NeighborTable(rows, cols, shape, edgeType, neighborhoodType);
+                    List<List<Integer>> expected = new ArrayList<>();
+                    for(int loc=0; loc<rows*cols; loc++){
+                        expected.add(new ArrayList<>());
+                    }
+                    for(int i=0; i<rows; i++){
+                        for(int j=0; j<cols; j++){
+                            for(int loc : NeighborTable.neighborhoodPicker(i, j, rows, cols, shape, edgeType, neighborhoodType).getMyNeighbors()){
+                                expected.get(loc).add(i * cols + j);
+                            }
+                        }
+                    }
+                    int[] cells = new int[table.getMaxReverseNeighbors()];
+                    for(int loc=0; loc<rows*cols; loc++){
+                        int count = table.getReverseNeighbors(loc, cells);
+                        List<Integer> actual = new ArrayList<>();
+                        for(int k=0; k<count; k++){
+                            actual.add(cells[k]);
+                        }
+                        Collections.sort(actual);
+                        Collections.sort(expected.get(loc));
+                        assertEquals(expected.get(loc), actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void reverseMatchesNeighbors(){
+        checkReverseMatchesNeighbors(12, 14);
+        checkReverseMatchesNeighbors(7, 11);
+        checkReverseMatchesNeighbors(3, 4);
+    }
+
+    @Test
+    void squareGridMatchesNeighbors(){
+        checkMatchesNeighbors(10, 10);
+    }
+
+    @Test
+    void oddRectangleGridMatchesNeighbors(){
+        checkMatchesNeighbors(7, 11);
+    }
+
+    @Test
+    void smallGridMatchesNeighbors(){
+        checkMatchesNeighbors(3, 4);
+    }
+
+    @Test
+    void matchesCombination(){
+        NeighborTable table = new NeighborTable(5, 5, CellShape.HEXAGON, EdgeType.FINITE, NeighborhoodType.CORNER);
+        assertTrue(table.matches(CellShape.HEXAGON, EdgeType.FINITE, NeighborhoodType.CORNER));
+        assertFalse(table.matches(CellShape.HEXAGON, EdgeType.TOROIDAL, NeighborhoodType.CORNER));
+    }
+
+    @Test
+    void triangleMaxNeighbors(){
+        NeighborTable table = new NeighborTable(10, 10, CellShape.TRIANGLE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+
+        var expected = 12;
+        var actual = table.getMaxNeighbors();
+        assertEquals(expected, actual);
+    }
+}
@@ -6,9 +6,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class Neighbors {
-    private List<Cell> myNeighbors;
+    static final int NO_NEIGHBOR = -1;
+
+    private List<Integer> myNeighbors;
     private int myX;
     private int myY;
+    private int myRows;
+    private int myCols;
     private EdgeType myEdgeType;
     private CellShape myCellShape;
 
@@ -21,69 +25,91 @@ public abstract class Neighbors {
      * @param edgeType
      */
     public Neighbors(int x, int y, Grid myGrid, CellShape cellShape, EdgeType edgeType){
+        this(x, y, myGrid.getMyRows(), myGrid.getMyCols(), cellShape, edgeType);
+    }
+
+    /**
+     * Constructor only needs the grid dimensions, neighbors are found as flat locations (row * cols + col)
+     * @param x
+     * @param y
+     * @param rows
+     * @param cols
+     * @param cellShape
+     * @param edgeType
+     */
+    public Neighbors(int x, int y, int rows, int cols, CellShape cellShape, EdgeType edgeType){
         myX = x;
         myY = y;
+        myRows = rows;
+        myCols = cols;
         myEdgeType = edgeType;
         myCellShape = cellShape;
-        myNeighbors = findNeighbors(myGrid);
+        myNeighbors = findLocations();
     }
 
     /**
      * calls correct helper method to find right neighbors based on CellShape
-     * @param cellGrid
-     * @return
+     * @return flat grid locations of the neighbors
      */
-    List<Cell> findNeighbors(Grid cellGrid){
+    List<Integer> findLocations(){
         if (myCellShape == CellShape.SQUARE) {
-            return squareNeighbors(cellGrid, myX, myY);
+            return squareNeighbors(myX, myY);
         }
         else if (myCellShape == CellShape.HEXAGON) {
-            return hexNeighbors(cellGrid);
+            return hexNeighbors();
         }
         else{ //TRIANGLE
-            return triNeighbors(cellGrid, myX, myY);
+            return triNeighbors(myX, myY);
         }
     }
 
     /**
-     * Abstract squareNeighbors and triNeighbors in each of 3 concrete subclasses
-     * Loops through cellGrid and fills neighbors array accordingly
+     * Looks up the cells at this cell's neighbor locations
      * @param cellGrid
+     * @return
+     */
+    List<Cell> findNeighbors(Grid cellGrid){
+        List<Cell> neighbors = new ArrayList<>();
+        for(int loc : myNeighbors){
+            neighbors.add(cellGrid.getCellAt(loc / myCols, loc % myCols));
+        }
+        return neighbors;
+    }
+
+    /**
+     * Abstract squareNeighbors and triNeighbors in each of 3 concrete subclasses
+     * Loops through the surrounding rows and columns and fills neighbors list accordingly
      * @param x
      * @param y
-     * @return list of cell neighbors for this cell
+     * @return list of flat neighbor locations for this cell
      */
-    public abstract List<Cell> squareNeighbors(Grid cellGrid, int x, int y);
+    public abstract List<Integer> squareNeighbors(int x, int y);
 
-    public List<Cell> triNeighbors(Grid cellGrid, int x, int y) {
+    public List<Integer> triNeighbors(int x, int y) {
         if(upsideDown()){
-            return upsideDownNeighbors(cellGrid, x, y);
+            return upsideDownNeighbors(x, y);
         }
         else{
-            return rightSideUpNeighbors(cellGrid, x, y);
+            return rightSideUpNeighbors(x, y);
         }
     }
 
-    public abstract List<Cell> upsideDownNeighbors(Grid cellGrid, int x, int y);
-    public abstract List<Cell> rightSideUpNeighbors(Grid cellGrid, int x, int y);
+    public abstract List<Integer> upsideDownNeighbors(int x, int y);
+    public abstract List<Integer> rightSideUpNeighbors(int x, int y);
 
     /**
      * hexNeighbors in abstract class not in concrete subclasses because same for all 3 types of neighborshoods
      * Complete, Cardinal, Corner all have same hex neighbors (still calls edgeCheck helper method)
-     * @param cellGrid
-     * @return list of neighbors for this cell
+     * @return list of neighbor locations for this cell
      */
-    private List<Cell> hexNeighbors(Grid cellGrid){
-        List<Cell> neighbors = new ArrayList<>();
+    private List<Integer> hexNeighbors(){
+        List<Integer> neighbors = new ArrayList<>();
 
         //Even r-horizontal layout (shoves even rows right)
         for (int i = myX - 1; i < myX + 2; i++) {
             for (int j = myY - 1; j < myY + 2; j++) {
                 if ((i != myX || j != myY) && goodHex(i, j)) {
-                    Cell temp = edgeCheck(cellGrid, i, j);
-                    if (temp != null) {
-                        neighbors.add(temp);
-                    }
+                    addNeighbor(neighbors, i, j);
                 }
             }
         }
@@ -91,11 +117,11 @@ public abstract class Neighbors {
     }
 
     /**
-     * Getter returns list of neighbors
+     * Getter returns list of neighbor locations (row * cols + col)
      * @return
      */
-    public List<Cell> getMyNeighbors(){
-        List<Cell> copy = myNeighbors;
+    public List<Integer> getMyNeighbors(){
+        List<Integer> copy = myNeighbors;
         return copy;
     }
 
@@ -135,38 +161,51 @@ public abstract class Neighbors {
     }
 
     /**
-     * Called by each shapeNeighbors method on each cell checking edge cases
+     * Called by each shapeNeighbors method on each location checking edge cases
+     * Adds the location to the list if edgeCheck keeps it
+     * @param neighbors
+     * @param x
+     * @param y
+     */
+    void addNeighbor(List<Integer> neighbors, int x, int y){
+        int loc = edgeCheck(x, y);
+        if(loc != NO_NEIGHBOR){
+            neighbors.add(loc);
+        }
+    }
+
+    /**
+     * Checks edge cases for one location
      * 3 different posibilities (toroidal, finite, semitoroidal -- use helper methods above)
-     * @param cellGrid
      * @param x
      * @param y
-     * @return
+     * @return flat location in the grid or NO_NEIGHBOR if off the grid
      */
-    Cell edgeCheck(Grid cellGrid, int x, int y){
+    int edgeCheck(int x, int y){
         int tempX;
         int tempY;
 
         //toroidal -- loop to other side of grid always
         if(myEdgeType == EdgeType.TOROIDAL){
-            tempX = toroidal(x, cellGrid.getMyRows());
-            tempY = toroidal(y, cellGrid.getMyCols());
-            return cellGrid.getCellAt(tempX, tempY);
+            tempX = toroidal(x, myRows);
+            tempY = toroidal(y, myCols);
+            return tempX * myCols + tempY;
         }
 
         //finite -- never loop to other side of grid
-        else if(myEdgeType == EdgeType.FINITE && finite(x, cellGrid.getMyRows()) && finite(y, cellGrid.getMyCols())){
-            return cellGrid.getCellAt(x,y);
+        else if(myEdgeType == EdgeType.FINITE && finite(x, myRows) && finite(y, myCols)){
+            return x * myCols + y;
         }
         //Semi toroidal -- corners don't overflow, only direct cardinal overflow
         //Yes left right and top bottom overflow
         else if(myEdgeType == EdgeType.SEMITOROIDAL){
-            tempX = toroidal(x, cellGrid.getMyRows());
-            tempY = toroidal(y, cellGrid.getMyCols());
+            tempX = toroidal(x, myRows);
+            tempY = toroidal(y, myCols);
             //Corner flip -- not allowed (one temp must be same as original - no change)
             if(tempX == x || tempY == y){
-                return cellGrid.getCellAt(tempX, tempY);
+                return tempX * myCols + tempY;
             }
         }
-        return null;
+        return NO_NEIGHBOR;
     }
 }
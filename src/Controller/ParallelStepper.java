@@ -0,0 +1,143 @@
+package Controller;
+
+import Model.Cell;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Steps a buffer backed grid on several threads by splitting it into bands of whole rows
+ * Every band gets its own RuleKernel, bands only write their own rows of the next buffer
+ * Result is exactly the same as stepping the rows one after another since rules only read current states
+ */
+public class ParallelStepper {
+    //More bands than threads so one slow band (lots of border cells) does not hold up the rest
+    private static final int BANDS_PER_THREAD = 4;
+    //Fewer active cells than this are not worth handing to the pool
+    private static final int MIN_PARALLEL_CELLS = 4096;
+
+    private ForkJoinPool myPool;
+    private int myThreads;
+    private RuleKernel[] myKernels;
+    private int[] myBandStarts;
+
+    /**
+     * Constructor makes the worker pool
+     * @param threads
+     */
+    public ParallelStepper(int threads){
+        if(threads < 1){
+            throw new SimulationException("Thread count must be at least 1, got %d", threads);
+        }
+        myThreads = threads;
+        myPool = new ForkJoinPool(threads);
+    }
+
+    public int getThreads(){
+        return myThreads;
+    }
+
+    /**
+     * Stops the worker pool's threads, the stepper can not step after this
+     */
+    public void shutdown(){
+        myPool.shutdown();
+    }
+
+    /**
+     * Makes one kernel per band, called again whenever the simulation or neighbor table changes
+     * @param cellMaker
+     * @param maxNeighbors
+     * @param rows
+     * @param table compiled rule shared by every kernel (read only), may be null
+     * @param rowRules even and odd row rules shared by every kernel (no state of their own, each kernel has its own HaloRows), may be null
+     * @param tileCols cols of a HaloRows tile
+     */
+    public void prepare(Supplier<Cell> cellMaker, int maxNeighbors, int rows, RuleTable table, RowRule[] rowRules, int tileCols){
+        int bands = Math.max(1, Math.min(rows, myThreads * BANDS_PER_THREAD));
+        myKernels = new RuleKernel[bands];
+        myBandStarts = new int[bands + 1];
+        for(int b = 0; b < bands; b++){
+            myKernels[b] = new RuleKernel(cellMaker, maxNeighbors, table, rowRules, tileCols);
+            myBandStarts[b] = (int) ((long) rows * b / bands);
+        }
+        myBandStarts[bands] = rows;
+    }
+
+    /**
+     * Fills the whole next buffer, returns once every band is done (caller swaps the buffers)
+     * @param grid
+     * @param table
+     * @param states
+     * @param shape
+     */
+    public void step(Grid grid, NeighborTable table, StateBuffer states, CellShape shape){
+        myPool.invoke(new BandTask(this, grid, table, states, shape, null, 0, 0, myKernels.length));
+    }
+
+    /**
+     * Writes the next state of only the given cells, the list is split into one chunk per band
+     * @param grid
+     * @param table
+     * @param states
+     * @param shape
+     * @param locations
+     * @param count number of locations used
+     */
+    public void stepCells(Grid grid, NeighborTable table, StateBuffer states, CellShape shape, int[] locations, int count){
+        if(count < MIN_PARALLEL_CELLS){
+            myKernels[0].stepCells(grid, table, states, shape, locations, 0, count);
+        }
+        else{
+            myPool.invoke(new BandTask(this, grid, table, states, shape, locations, count, 0, myKernels.length));
+        }
+    }
+
+    //Splits the range of bands in half until one band is left, then runs that band's kernel on its rows (or its chunk of the locations)
+    private static class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private ParallelStepper myStepper;
+        private Grid myGrid;
+        private NeighborTable myTable;
+        private StateBuffer myStates;
+        private CellShape myShape;
+        private int[] myLocations;
+        private int myCount;
+        private int myFirst;
+        private int myLast;
+
+        BandTask(ParallelStepper stepper, Grid grid, NeighborTable table, StateBuffer states, CellShape shape, int[] locations, int count, int first, int last){
+            myStepper = stepper;
+            myGrid = grid;
+            myTable = table;
+            myStates = states;
+            myShape = shape;
+            myLocations = locations;
+            myCount = count;
+            myFirst = first;
+            myLast = last;
+        }
+
+        @Override
+        protected void compute(){
+            RuleKernel[] kernels = myStepper.myKernels;
+            if(myLast - myFirst == 1 && myLocations == null){
+                int[] bandStarts = myStepper.myBandStarts;
+                kernels[myFirst].stepRows(myGrid, myTable, myStates, myShape, bandStarts[myFirst], bandStarts[myFirst + 1]);
+            }
+            else if(myLast - myFirst == 1){
+                int bands = kernels.length;
+                int from = (int) ((long) myCount * myFirst / bands);
+                int to = (int) ((long) myCount * (myFirst + 1) / bands);
+                kernels[myFirst].stepCells(myGrid, myTable, myStates, myShape, myLocations, from, to);
+            }
+            else{
+                int middle = (myFirst + myLast) / 2;
+                invokeAll(new BandTask(myStepper, myGrid, myTable, myStates, myShape, myLocations, myCount, myFirst, middle),
+                        new BandTask(myStepper, myGrid, myTable, myStates, myShape, myLocations, myCount, middle, myLast));
+            }
+        }
+    }
+}
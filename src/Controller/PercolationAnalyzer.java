@@ -0,0 +1,238 @@
+package Controller;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Answers percolation questions about a board without stepping it
+ * Open cells (any state but 0, so percolated cells count as open) are grouped into clusters with a
+ * union-find (union by size, path halving) over the same NeighborTable the simulation uses, so shape, edge and
+ * neighborhood are respected, and a link listed by only one of the two cells (semitoroidal corners) still joins them
+ * The board percolates if one cluster has cells in both the top and the bottom row, so links across the row seam
+ * of wrapping edges (first row to last row) are left out, otherwise the top and bottom rows would always touch;
+ * columns still wrap, the board is a cylinder
+ * estimateThreshold runs Newman-Ziff trials on the same topology without any board
+ */
+public class PercolationAnalyzer {
+    private static final int CLOSED = -1;
+
+    private NeighborTable myTable;
+    private int myCells;
+    private int[] myNeighbors;
+    private int[] myParent;
+    private int[] mySize;
+    private boolean[] isSpanningRoot;
+    private int mySpanningRoot = CLOSED;
+
+    /**
+     * Constructor builds the topology once, analyze and estimateThreshold can be called any number of times
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     */
+    public PercolationAnalyzer(int rows, int cols, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        myTable = new NeighborTable(rows, cols, shape, edgeType, neighborhoodType);
+        myCells = rows * cols;
+        myNeighbors = new int[Math.max(myTable.getMaxNeighbors(), myTable.getMaxReverseNeighbors())];
+        myParent = new int[myCells + 2];
+        mySize = new int[myCells + 2];
+        Arrays.fill(myParent, CLOSED);
+        isSpanningRoot = new boolean[myCells];
+    }
+
+    /**
+     * Labels the open clusters of the grid's current states in one pass
+     * @param grid same size as the analyzer
+     */
+    public void analyze(Grid grid){
+        int cols = myTable.getMyCols();
+        if(grid.getMyRows() != myTable.getMyRows() || grid.getMyCols() != cols){
+            throw new SimulationException("Grid is %dx%d, analyzer was built for %dx%d", grid.getMyRows(), grid.getMyCols(), myTable.getMyRows(), cols);
+        }
+        Arrays.fill(myParent, CLOSED);
+        for(int loc = 0; loc < myCells; loc++){
+            if(grid.getCellState(loc / cols, loc % cols) != 0){
+                open(loc);
+            }
+        }
+        for(int loc = 0; loc < myCells; loc++){
+            if(myParent[loc] != CLOSED){
+                int count = myTable.getNeighbors(loc / cols, loc % cols, myNeighbors);
+                joinOpen(loc, count);
+            }
+        }
+        findSpanningClusters();
+    }
+
+    //A root spans if its cluster has a cell in the first and in the last row
+    private void findSpanningClusters(){
+        int cols = myTable.getMyCols();
+        boolean[] top = new boolean[myCells];
+        isSpanningRoot = new boolean[myCells];
+        mySpanningRoot = CLOSED;
+        for(int col = 0; col < cols; col++){
+            if(myParent[col] != CLOSED){
+                top[find(col)] = true;
+            }
+        }
+        for(int loc = myCells - cols; loc < myCells; loc++){
+            if(myParent[loc] != CLOSED && top[find(loc)]){
+                int root = find(loc);
+                isSpanningRoot[root] = true;
+                if(mySpanningRoot == CLOSED || mySize[root] > mySize[mySpanningRoot]){
+                    mySpanningRoot = root;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if an open cluster connects the top row to the bottom row (after analyze)
+     */
+    public boolean percolates(){
+        return mySpanningRoot != CLOSED;
+    }
+
+    /**
+     * getter
+     * @return number of cells in the largest cluster connecting top and bottom, 0 if the board does not percolate
+     */
+    public int getSpanningSize(){
+        return mySpanningRoot == CLOSED ? 0 : mySize[mySpanningRoot];
+    }
+
+    /**
+     * @param row
+     * @param col
+     * @return true if the cell belongs to the largest spanning cluster
+     */
+    public boolean isInSpanningCluster(int row, int col){
+        int loc = row * myTable.getMyCols() + col;
+        return mySpanningRoot != CLOSED && myParent[loc] != CLOSED && find(loc) == mySpanningRoot;
+    }
+
+    /**
+     * @param row
+     * @param col
+     * @return true if the cell belongs to any cluster connecting top and bottom
+     */
+    public boolean isSpanning(int row, int col){
+        int loc = row * myTable.getMyCols() + col;
+        return myParent[loc] != CLOSED && isSpanningRoot[find(loc)];
+    }
+
+    /**
+     * Size distribution of the open clusters found by analyze
+     * @return counts[size] = number of clusters with that many cells (index 0 is unused)
+     */
+    public int[] getClusterSizeCounts(){
+        int largest = 0;
+        for(int loc = 0; loc < myCells; loc++){
+            if(myParent[loc] == loc){
+                largest = Math.max(largest, mySize[loc]);
+            }
+        }
+        int[] counts = new int[largest + 1];
+        for(int loc = 0; loc < myCells; loc++){
+            if(myParent[loc] == loc){
+                counts[mySize[loc]]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Newman-Ziff Monte Carlo: cells are opened one at a time in random order until top and bottom connect,
+     * the share of open cells at that moment is one sample of the percolation threshold
+     * @param trials
+     * @param random
+     * @return mean of the samples
+     */
+    public double estimateThreshold(int trials, SplittableRandom random){
+        if(trials <= 0){
+            throw new SimulationException("Number of trials must be positive, was %d", trials);
+        }
+        int cols = myTable.getMyCols();
+        int top = myCells;
+        int bottom = myCells + 1;
+        int[] order = new int[myCells];
+        double sum = 0;
+        for(int trial = 0; trial < trials; trial++){
+            for(int k = 0; k < myCells; k++){
+                order[k] = k;
+            }
+            Arrays.fill(myParent, CLOSED);
+            open(top);
+            open(bottom);
+            int opened = 0;
+            while(opened < myCells && find(top) != find(bottom)){
+                int pick = opened + random.nextInt(myCells - opened);
+                int loc = order[pick];
+                order[pick] = order[opened];
+                order[opened] = loc;
+                opened++;
+                open(loc);
+                if(loc < cols){
+                    union(loc, top);
+                }
+                if(loc >= myCells - cols){
+                    union(loc, bottom);
+                }
+                int count = myTable.getNeighbors(loc / cols, loc % cols, myNeighbors);
+                joinOpen(loc, count);
+                count = myTable.getReverseNeighbors(loc, myNeighbors);
+                joinOpen(loc, count);
+            }
+            sum += (double) opened / myCells;
+        }
+        mySpanningRoot = CLOSED;
+        isSpanningRoot = new boolean[myCells];
+        Arrays.fill(myParent, CLOSED);
+        return sum / trials;
+    }
+
+    //Joins loc with its open neighbors, except the ones across the row seam
+    private void joinOpen(int loc, int count){
+        for(int k = 0; k < count; k++){
+            if(myParent[myNeighbors[k]] != CLOSED && !crossesRowSeam(loc, myNeighbors[k])){
+                union(loc, myNeighbors[k]);
+            }
+        }
+    }
+
+    //Neighbors are at most one row apart, more means the link wrapped from the first row to the last
+    private boolean crossesRowSeam(int a, int b){
+        int cols = myTable.getMyCols();
+        return Math.abs(a / cols - b / cols) > 1;
+    }
+
+    private void open(int loc){
+        myParent[loc] = loc;
+        mySize[loc] = 1;
+    }
+
+    private int find(int loc){
+        while(myParent[loc] != loc){
+            myParent[loc] = myParent[myParent[loc]];
+            loc = myParent[loc];
+        }
+        return loc;
+    }
+
+    private void union(int a, int b){
+        int rootA = find(a);
+        int rootB = find(b);
+        if(rootA == rootB){
+            return;
+        }
+        if(mySize[rootA] < mySize[rootB]){
+            int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        }
+        myParent[rootB] = rootA;
+        mySize[rootA] += mySize[rootB];
+    }
+}
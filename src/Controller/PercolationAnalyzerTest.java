@@ -0,0 +1,86 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PercolationAnalyzerTest {
+
+    //5 by 5 board, every cell blocked except the ones listed
+    private Grid makeGrid(int[][] open){
+        Grid grid = new Grid(new Data(new int[]{25, 0, 0}, 5, 5));
+        grid.fillCellGrid("Percolation");
+        for(int[] cell : open){
+            grid.updateCellState(cell[0], cell[1], 1);
+        }
+        return grid;
+    }
+
+    @Test
+    void openColumnPercolates(){
+        Grid grid = makeGrid(new int[][]{{0, 2}, {1, 2}, {2, 2}, {3, 2}, {4, 2}, {0, 0}});
+        PercolationAnalyzer analyzer = new PercolationAnalyzer(5, 5, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.CARDINAL);
+        analyzer.analyze(grid);
+
+        assertTrue(analyzer.percolates());
+        assertEquals(5, analyzer.getSpanningSize());
+        assertTrue(analyzer.isInSpanningCluster(3, 2));
+        assertFalse(analyzer.isSpanning(0, 0));
+        assertArrayEquals(new int[]{0, 1, 0, 0, 0, 1}, analyzer.getClusterSizeCounts());
+    }
+
+    @Test
+    void diagonalStepNeedsCompleteNeighborhood(){
+        Grid grid = makeGrid(new int[][]{{0, 1}, {1, 1}, {2, 2}, {3, 2}, {4, 2}});
+        PercolationAnalyzer cardinal = new PercolationAnalyzer(5, 5, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.CARDINAL);
+        cardinal.analyze(grid);
+        PercolationAnalyzer complete = new PercolationAnalyzer(5, 5, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+        complete.analyze(grid);
+
+        assertFalse(cardinal.percolates());
+        assertEquals(0, cardinal.getSpanningSize());
+        assertTrue(complete.percolates());
+    }
+
+    //Wrapped rows would make the top and bottom rows neighbors, only the columns wrap for spanning
+    @Test
+    void wrappingRowsDoNotSpan(){
+        Grid grid = makeGrid(new int[][]{{0, 3}, {4, 3}});
+        for(EdgeType edgeType : new EdgeType[]{EdgeType.TOROIDAL, EdgeType.SEMITOROIDAL}){
+            PercolationAnalyzer analyzer = new PercolationAnalyzer(5, 5, CellShape.SQUARE, edgeType, NeighborhoodType.CARDINAL);
+            analyzer.analyze(grid);
+
+            assertFalse(analyzer.percolates());
+            assertArrayEquals(new int[]{0, 2}, analyzer.getClusterSizeCounts());
+        }
+    }
+
+    @Test
+    void wrappingColumnsSpan(){
+        Grid grid = makeGrid(new int[][]{{0, 0}, {1, 0}, {1, 4}, {2, 4}, {3, 4}, {4, 4}});
+        PercolationAnalyzer analyzer = new PercolationAnalyzer(5, 5, CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.CARDINAL);
+        analyzer.analyze(grid);
+
+        assertTrue(analyzer.percolates());
+        assertEquals(6, analyzer.getSpanningSize());
+    }
+
+    @Test
+    void toroidalSiteThreshold(){
+        PercolationAnalyzer analyzer = new PercolationAnalyzer(64, 64, CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.CARDINAL);
+
+        var actual = analyzer.estimateThreshold(50, new SplittableRandom(2));
+        assertEquals(0.593, actual, 0.03);
+    }
+
+    @Test
+    void squareSiteThreshold(){
+        //Site percolation on the square lattice with 4 neighbors has its threshold near 0.593
+        PercolationAnalyzer analyzer = new PercolationAnalyzer(64, 64, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.CARDINAL);
+
+        var actual = analyzer.estimateThreshold(50, new SplittableRandom(2));
+        assertEquals(0.593, actual, 0.03);
+    }
+}
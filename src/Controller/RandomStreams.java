@@ -0,0 +1,54 @@
+package Controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of every random choice a simulation makes after it is loaded (Segregation moves, fish and shark moves)
+ * Each generation gets its own SplittableRandom derived from the seed and the generation number only,
+ * so a seeded run gives the same grid every time no matter how many threads step it or where it was resumed from
+ * The optional Seed key of a simulation properties file sets the seed, without it every run is different
+ */
+public class RandomStreams {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long mySeed;
+
+    /**
+     * Constructor with a seed nobody chose (runs are not repeatable)
+     */
+    public RandomStreams(){
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor
+     * @param seed
+     */
+    public RandomStreams(long seed){
+        mySeed = seed;
+    }
+
+    /**
+     * getter
+     * @return
+     */
+    public long getSeed(){
+        return mySeed;
+    }
+
+    /**
+     * Stream for one generation, asking twice for the same generation starts the same sequence again
+     * @param generation
+     * @return
+     */
+    public SplittableRandom stream(long generation){
+        return new SplittableRandom(mix(mySeed + generation * GOLDEN_GAMMA));
+    }
+
+    //Stafford's variant 13 finalizer (the one SplittableRandom uses) so neighboring generations get unrelated seeds
+    private static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
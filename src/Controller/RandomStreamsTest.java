@@ -0,0 +1,58 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomStreamsTest {
+
+    @Test
+    void sameSeedSameStream(){
+        RandomStreams first = new RandomStreams(42);
+        RandomStreams second = new RandomStreams(42);
+
+        var expected = first.stream(7).nextLong();
+        var actual = second.stream(7).nextLong();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void generationsGetDifferentStreams(){
+        RandomStreams streams = new RandomStreams(42);
+
+        assertNotEquals(streams.stream(7).nextLong(), streams.stream(8).nextLong());
+    }
+
+    //Same seed, different thread counts, every state must agree after each step
+    void checkSeededRunsMatch(String simType, double[] probabilities){
+        Grid first = new Grid(new Data(probabilities, 30, 30, new Random(6)));
+        first.fillCellGrid(simType);
+        first.setSeed(99);
+        first.setThreadCount(1);
+        Grid second = new Grid(new Data(probabilities, 30, 30, new Random(6)));
+        second.fillCellGrid(simType);
+        second.setSeed(99);
+        second.setThreadCount(4);
+        for(int k=0; k<20; k++){
+            first.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+            second.step(CellShape.SQUARE, EdgeType.TOROIDAL, NeighborhoodType.COMPLETE);
+            for(int i=0; i<30; i++){
+                for(int j=0; j<30; j++){
+                    assertEquals(first.getCellState(i, j), second.getCellState(i, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    void seededSegregationRepeats(){
+        checkSeededRunsMatch("Segregation", new double[]{0.2, 0.4, 0.4});
+    }
+
+    @Test
+    void seededPredatorPreyRepeats(){
+        checkSeededRunsMatch("PredatorPrey", new double[]{0.6, 0.3, 0.1});
+    }
+}
@@ -0,0 +1,18 @@
+package Controller;
+
+/**
+ * A synchronous rule applied to a run of cells in one row of a square grid at once
+ * Rows are read from a HaloRows block, where every cell (border cells too) has its neighbors at the same
+ * offsets from it, and the next states are written to the unpadded next buffer
+ */
+public interface RowRule {
+    /**
+     * Writes the next state of length cells
+     * @param current padded current states (HaloRows), neighbors of a cell with state OUTSIDE do not count
+     * @param from index in current of the first cell
+     * @param next next states, row major without padding
+     * @param to flat location of the first cell in next
+     * @param length
+     */
+    void stepRow(byte[] current, int from, byte[] next, int to, int length);
+}
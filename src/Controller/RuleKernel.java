@@ -0,0 +1,192 @@
+package Controller;
+
+import Model.Cell;
+import Model.CountRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs a synchronous rule (GameOfLife, Fire, Percolation, RPS) over a band of rows of a StateBuffer
+ * With a RuleTable a cell's next state is a histogram count and one lookup, states outside the table go to the
+ * cell's CountRule with a reused array of per-state counts, the Cell rule (updateCell on flyweight cells) only runs
+ * for order dependent results and cells that are not a CountRule
+ * With row rules (one for even and one for odd rows) whole rows are stepped at once, read tile by tile from HaloRows
+ * so border cells need no special case, cells a row rule leaves as RuleTable.FALLBACK then go cell by cell
+ * Holds its own reused rule cell, neighbor cells and neighbor array so each thread needs exactly one kernel
+ * Only reads current states and only writes next states of its own rows, so kernels on different bands never conflict
+ */
+public class RuleKernel {
+    //Rows per HaloRows tile, small enough that a tile of a wide grid stays in cache while it is stepped
+    private static final int BLOCK_ROWS = 64;
+
+    private Cell myRuleCell;
+    private CountRule myCountRule;
+    //myCounts[state] during a countNext call, all zero in between
+    private int[] myCounts = new int[Byte.MAX_VALUE + 1];
+    private Cell[] myNeighborPool;
+    private List<Cell> myNeighborCells;
+    private int[] myNeighborLocations;
+    private RuleTable myTable;
+    private int[] myWeights;
+    private RowRule[] myRowRules;
+    private int myTileCols;
+    private HaloRows myHalo;
+
+    /**
+     * Constructor makes the flyweight cells once
+     * @param cellMaker makes a cell of the simulation type (state and location do not matter)
+     * @param maxNeighbors largest neighborhood in the NeighborTable used
+     * @param table compiled rule for the shape stepped, null to always run the Cell rule
+     * @param rowRules rules for even and odd rows (offsets for HaloRows tiles tileCols wide), null to go cell by cell
+     * @param tileCols cols of a HaloRows tile, the grid's cols to step whole rows
+     */
+    public RuleKernel(Supplier<Cell> cellMaker, int maxNeighbors, RuleTable table, RowRule[] rowRules, int tileCols){
+        myRuleCell = cellMaker.get();
+        myCountRule = (myRuleCell instanceof CountRule) ? (CountRule) myRuleCell : null;
+        myNeighborPool = new Cell[maxNeighbors];
+        for(int k = 0; k < maxNeighbors; k++){
+            myNeighborPool[k] = cellMaker.get();
+        }
+        myNeighborCells = new ArrayList<>(maxNeighbors);
+        myNeighborLocations = new int[maxNeighbors];
+        myTable = table;
+        myRowRules = rowRules;
+        myTileCols = tileCols;
+        if(table != null){
+            myWeights = new int[table.getStates()];
+            for(int s = 0; s < myWeights.length; s++){
+                myWeights[s] = table.getWeight(s);
+            }
+        }
+    }
+
+    /**
+     * Writes the next state of every cell in rows [rowStart, rowEnd)
+     * Neighbors come from the table so wrapped rows (toroidal/semitoroidal) are read like any other row,
+     * with a row rule the rows are copied block by block into a HaloRows filled for the table's edge type
+     * @param grid
+     * @param table
+     * @param states
+     * @param shape
+     * @param rowStart
+     * @param rowEnd
+     */
+    public void stepRows(Grid grid, NeighborTable table, StateBuffer states, CellShape shape, int rowStart, int rowEnd){
+        int cols = states.getMyCols();
+        if(myRowRules != null){
+            stepBlocks(grid, table, states, shape, rowStart, rowEnd);
+            return;
+        }
+        for(int i = rowStart; i < rowEnd; i++){
+            for(int j = 0; j < cols; j++){
+                states.setNext(i * cols + j, nextState(grid, table, states, shape, i, j));
+            }
+        }
+    }
+
+    private void stepBlocks(Grid grid, NeighborTable table, StateBuffer states, CellShape shape, int rowStart, int rowEnd){
+        int cols = states.getMyCols();
+        if(myHalo == null || !myHalo.fits(states.getMyRows(), cols)){
+            myHalo = new HaloRows(states.getMyRows(), cols, BLOCK_ROWS, myTileCols);
+        }
+        byte[] next = states.nextArray();
+        for(int blockStart = rowStart; blockStart < rowEnd; blockStart += BLOCK_ROWS){
+            int blockEnd = Math.min(rowEnd, blockStart + BLOCK_ROWS);
+            for(int tileStart = 0; tileStart < cols; tileStart += myTileCols){
+                int tileEnd = Math.min(cols, tileStart + myTileCols);
+                myHalo.fill(states.currentArray(), table.getEdgeType(), blockStart, blockEnd, tileStart, tileEnd);
+                for(int i = blockStart; i < blockEnd; i++){
+                    myRowRules[i % 2].stepRow(myHalo.getCells(), myHalo.locate(i), next, i * cols + tileStart, tileEnd - tileStart);
+                    for(int j = tileStart; j < tileEnd; j++){
+                        if(next[i * cols + j] == RuleTable.FALLBACK){
+                            next[i * cols + j] = (byte) nextState(grid, table, states, shape, i, j);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the next state of the cells at locations[from] .. locations[to - 1] (used when only active cells are evaluated)
+     * @param grid
+     * @param table
+     * @param states
+     * @param shape
+     * @param locations
+     * @param from
+     * @param to
+     */
+    public void stepCells(Grid grid, NeighborTable table, StateBuffer states, CellShape shape, int[] locations, int from, int to){
+        int cols = states.getMyCols();
+        for(int k = from; k < to; k++){
+            states.setNext(locations[k], nextState(grid, table, states, shape, locations[k] / cols, locations[k] % cols));
+        }
+    }
+
+    //Looks the cell up in the rule table, then asks the CountRule, otherwise loads the flyweight cells with the current states and lets the rule cell pick
+    private int nextState(Grid grid, NeighborTable table, StateBuffer states, CellShape shape, int row, int col){
+        int count = table.getNeighbors(row, col, myNeighborLocations);
+        int state = states.getCurrent(row * states.getMyCols() + col);
+        if(myTable != null){
+            int next = lookUp(states.currentArray(), state, count);
+            if(next != RuleTable.FALLBACK){
+                return next;
+            }
+        }
+        if(myCountRule != null){
+            int next = countNext(states.currentArray(), state, count, shape);
+            if(next != RuleTable.FALLBACK){
+                return next;
+            }
+        }
+        myNeighborCells.clear();
+        for(int k = 0; k < count; k++){
+            myNeighborPool[k].setMyCurrentState(states.getCurrent(myNeighborLocations[k]));
+            myNeighborCells.add(myNeighborPool[k]);
+        }
+        myRuleCell.setMyCurrentState(state);
+        myRuleCell.setMyNextState(state);
+        myRuleCell.updateCell(myNeighborCells, grid, shape);
+        return myRuleCell.getMyNextState();
+    }
+
+    //Negative states (above 127 before the byte cast) cannot be counted, they go to the Cell rule
+    private int countNext(byte[] current, int state, int count, CellShape shape){
+        boolean isCountable = true;
+        for(int k = 0; k < count; k++){
+            int neighbor = current[myNeighborLocations[k]];
+            if(neighbor >= 0){
+                myCounts[neighbor]++;
+            }
+            else{
+                isCountable = false;
+            }
+        }
+        int next = isCountable ? myCountRule.nextState(state, myCounts, shape) : CountRule.ORDER_DEPENDENT;
+        for(int k = 0; k < count; k++){
+            int neighbor = current[myNeighborLocations[k]];
+            if(neighbor >= 0){
+                myCounts[neighbor] = 0;
+            }
+        }
+        return (next == CountRule.ORDER_DEPENDENT) ? RuleTable.FALLBACK : next;
+    }
+
+    private int lookUp(byte[] current, int state, int count){
+        if(state >= myWeights.length){
+            return RuleTable.FALLBACK;
+        }
+        int histogram = 0;
+        for(int k = 0; k < count; k++){
+            int neighbor = current[myNeighborLocations[k]];
+            if(neighbor >= myWeights.length){
+                return RuleTable.FALLBACK;
+            }
+            histogram += myWeights[neighbor];
+        }
+        return myTable.getNext(state, histogram);
+    }
+}
@@ -0,0 +1,208 @@
+package Controller;
+
+import Model.Cell;
+import Model.CountRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Next state of a synchronous rule looked up from (current state, how many neighbors are in each state)
+ * instead of running the Cell's if-chains, so a step only counts neighbors and reads one array entry
+ * The neighbor histogram is one number: every neighbor adds getWeight(its state), the weights are powers of (max neighbors + 1)
+ * Tables are compiled from the Cell's CountRule, by running the Cell rule once per (current state, histogram)
+ * for cells that are not one, or straight from a LifeRule
+ * Entries whose result depends on the order of the neighbors (RPS when two enemies both reach the threshold)
+ * are FALLBACK and still have to run the Cell rule
+ */
+public class RuleTable {
+    public static final int FALLBACK = -1;
+    //Larger tables (many states, big neighborhoods) are not worth compiling
+    private static final int MAX_ENTRIES = 1 << 20;
+
+    private int myStates;
+    private int[] myWeights;
+    private int myHistograms;
+    private byte[] myNext;
+
+    private RuleTable(int states, int maxNeighbors){
+        myStates = states;
+        myWeights = new int[states];
+        int weight = 1;
+        for(int s = 0; s < states; s++){
+            myWeights[s] = weight;
+            weight *= maxNeighbors + 1;
+        }
+        myHistograms = weight;
+        myNext = new byte[states * myHistograms];
+        Arrays.fill(myNext, (byte) FALLBACK);
+    }
+
+    /**
+     * Compiles the rule of a Cell type for one cell shape
+     * @param cellMaker makes a cell of the simulation type (state and location do not matter)
+     * @param states number of states of the simulation
+     * @param shape
+     * @param maxNeighbors largest neighborhood in the NeighborTable used
+     * @param grid passed on to the rule
+     * @return table, or null if it would be too large
+     */
+    public static RuleTable compile(Supplier<Cell> cellMaker, int states, CellShape shape, int maxNeighbors, Grid grid){
+        if(Math.pow(maxNeighbors + 1, states) * states > MAX_ENTRIES){
+            return null;
+        }
+        RuleTable table = new RuleTable(states, maxNeighbors);
+        Cell ruleCell = cellMaker.get();
+        List<Cell> neighbors = new ArrayList<>();
+        for(int k = 0; k < maxNeighbors; k++){
+            neighbors.add(cellMaker.get());
+        }
+        CountRule countRule = (ruleCell instanceof CountRule) ? (CountRule) ruleCell : null;
+        List<int[]> orders = (countRule == null) ? stateOrders(states) : List.of();
+        int[] counts = new int[states];
+        do{
+            for(int current = 0; current < states; current++){
+                int result = (countRule == null) ? runOrders(ruleCell, neighbors, current, counts, orders, grid, shape)
+                        : countRule.nextState(current, counts, shape);
+                if(result >= 0 && result < states){
+                    table.myNext[current * table.myHistograms + table.histogram(counts)] = (byte) result;
+                }
+            }
+        }while(nextHistogram(counts, maxNeighbors));
+        return table;
+    }
+
+    /**
+     * Builds the table of a two state Life-like rule (0 = dead, 1 = alive), the same for every cell shape
+     * @param rule
+     * @param maxNeighbors
+     * @return
+     */
+    public static RuleTable lifeLike(LifeRule rule, int maxNeighbors){
+        RuleTable table = new RuleTable(2, maxNeighbors);
+        for(int dead = 0; dead <= maxNeighbors; dead++){
+            for(int alive = 0; dead + alive <= maxNeighbors; alive++){
+                int histogram = table.histogram(new int[]{dead, alive});
+                table.myNext[histogram] = (byte) (rule.isAliveNext(false, alive) ? 1 : 0);
+                table.myNext[table.myHistograms + histogram] = (byte) (rule.isAliveNext(true, alive) ? 1 : 0);
+            }
+        }
+        return table;
+    }
+
+    //Same result for every order of the neighbors or FALLBACK
+    private static int runOrders(Cell ruleCell, List<Cell> pool, int current, int[] counts, List<int[]> orders, Grid grid, CellShape shape){
+        int result = FALLBACK;
+        for(int[] order : orders){
+            int next = runRule(ruleCell, pool, current, counts, order, grid, shape);
+            if(result != FALLBACK && next != result){
+                return FALLBACK;
+            }
+            result = next;
+        }
+        return result;
+    }
+
+    //Neighbors go in grouped by state, once for every order of the groups, so an order dependent result shows up as a disagreement
+    private static int runRule(Cell ruleCell, List<Cell> pool, int current, int[] counts, int[] order, Grid grid, CellShape shape){
+        List<Cell> neighbors = new ArrayList<>();
+        for(int state : order){
+            for(int k = 0; k < counts[state]; k++){
+                Cell neighbor = pool.get(neighbors.size());
+                neighbor.setMyCurrentState(state);
+                neighbors.add(neighbor);
+            }
+        }
+        ruleCell.setMyCurrentState(current);
+        ruleCell.setMyNextState(current);
+        ruleCell.updateCell(neighbors, grid, shape);
+        return ruleCell.getMyNextState();
+    }
+
+    //Every permutation of 0 .. states - 1
+    private static List<int[]> stateOrders(int states){
+        List<int[]> orders = new ArrayList<>();
+        int[] order = new int[states];
+        for(int s = 0; s < states; s++){
+            order[s] = s;
+        }
+        permute(order, 0, orders);
+        return orders;
+    }
+
+    private static void permute(int[] order, int from, List<int[]> orders){
+        if(from == order.length){
+            orders.add(order.clone());
+            return;
+        }
+        for(int k = from; k < order.length; k++){
+            swap(order, from, k);
+            permute(order, from + 1, orders);
+            swap(order, from, k);
+        }
+    }
+
+    private static void swap(int[] order, int a, int b){
+        int temp = order[a];
+        order[a] = order[b];
+        order[b] = temp;
+    }
+
+    //Counts neighbors in each state like an odometer, skipping histograms with more than maxNeighbors neighbors
+    private static boolean nextHistogram(int[] counts, int maxNeighbors){
+        for(int s = 0; s < counts.length; s++){
+            counts[s]++;
+            if(Arrays.stream(counts).sum() <= maxNeighbors){
+                return true;
+            }
+            counts[s] = 0;
+        }
+        return false;
+    }
+
+    private int histogram(int[] counts){
+        int histogram = 0;
+        for(int s = 0; s < counts.length; s++){
+            histogram += counts[s] * myWeights[s];
+        }
+        return histogram;
+    }
+
+    /**
+     * getter
+     * @return number of states the table covers, any other state has to run the Cell rule
+     */
+    public int getStates(){
+        return myStates;
+    }
+
+    /**
+     * What one neighbor in this state adds to the histogram
+     * @param state below getStates()
+     * @return
+     */
+    public int getWeight(int state){
+        return myWeights[state];
+    }
+
+    /**
+     * Looks up the next state
+     * @param current below getStates()
+     * @param histogram sum of getWeight over the neighbors' states
+     * @return next state or FALLBACK
+     */
+    public int getNext(int current, int histogram){
+        return myNext[current * myHistograms + histogram];
+    }
+
+    //Raw entries for TableRowRule: entry of (current, histogram) is at getBase(current) + histogram
+    int getBase(int current){
+        return current * myHistograms;
+    }
+
+    byte[] nextArray(){
+        return myNext;
+    }
+}
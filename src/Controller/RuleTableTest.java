@@ -0,0 +1,56 @@
+package Controller;
+
+import Model.FireCell;
+import Model.GameOfLifeCell;
+import Model.RPSCell;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleTableTest {
+
+    private int histogram(RuleTable table, int... counts){
+        int histogram = 0;
+        for(int s = 0; s < counts.length; s++){
+            histogram += counts[s] * table.getWeight(s);
+        }
+        return histogram;
+    }
+
+    @Test
+    void gameOfLifeFollowsShape(){
+        RuleTable square = RuleTable.compile(() -> new GameOfLifeCell(0, 0, 0), 2, CellShape.SQUARE, 8, null);
+        RuleTable triangle = RuleTable.compile(() -> new GameOfLifeCell(0, 0, 0), 2, CellShape.TRIANGLE, 12, null);
+
+        //Live cell with 7 live neighbors dies on squares but survives on triangles
+        assertEquals(0, square.getNext(1, histogram(square, 1, 7)));
+        assertEquals(1, triangle.getNext(1, histogram(triangle, 5, 7)));
+        assertEquals(1, square.getNext(0, histogram(square, 5, 3)));
+    }
+
+    @Test
+    void fireBurnsFromAnyBurningNeighbor(){
+        RuleTable table = RuleTable.compile(() -> new FireCell(0, 0, 0), 3, CellShape.SQUARE, 4, null);
+
+        assertEquals(2, table.getNext(1, histogram(table, 0, 3, 1)));
+        assertEquals(1, table.getNext(1, histogram(table, 1, 3, 0)));
+        assertEquals(0, table.getNext(2, histogram(table, 0, 0, 4)));
+    }
+
+    @Test
+    void orderDependentEntriesFallBack(){
+        RuleTable table = RuleTable.compile(() -> new RPSCell(0, 0, 0), 3, CellShape.SQUARE, 8, null);
+
+        //Rock with 3 paper and 3 scissor neighbors: whichever reaches the threshold first in the list wins
+        assertEquals(RuleTable.FALLBACK, table.getNext(0, histogram(table, 2, 3, 3)));
+        assertEquals(1, table.getNext(0, histogram(table, 3, 3, 2)));
+    }
+
+    @Test
+    void lifeLikeRule(){
+        RuleTable table = RuleTable.lifeLike(LifeRule.parse("B36/S23"), 8);
+
+        assertEquals(1, table.getNext(0, histogram(table, 2, 6)));
+        assertEquals(0, table.getNext(1, histogram(table, 2, 6)));
+    }
+}
@@ -0,0 +1,146 @@
+package Controller;
+
+import Model.MoveSink;
+import Model.SegregationCell;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Keeps, for every location, how many of its neighbors are occupied and how many are of each agent type,
+ * and the set of agents that are unhappy with those counts (SegregationCell.isSatisfied)
+ * A move only touches the counters of the cells around the two locations involved, so a Segregation step
+ * costs about the number of unhappy agents instead of the size of the grid
+ * Built for one neighbor table, Grid makes a new one when the table or the states change some other way
+ */
+class SatisfactionTracker {
+    private NeighborTable myTable;
+    private int myCols;
+    private int myTypes;
+    private byte[] myStates;
+    private int[] myOccupied;
+    //myCounts[location * myTypes + type] = neighbors of that type
+    private int[] myCounts;
+    private IndexedCellSet myUnhappy;
+    private int[] myReverse;
+
+    /**
+     * Constructor counts every neighborhood once
+     * @param states current state of every location, copied
+     * @param table
+     */
+    SatisfactionTracker(byte[] states, NeighborTable table){
+        myTable = table;
+        myCols = table.getMyCols();
+        myStates = states.clone();
+        int maxState = 0;
+        for(byte state : myStates){
+            maxState = Math.max(maxState, state);
+        }
+        myTypes = maxState + 1;
+        myOccupied = new int[myStates.length];
+        myCounts = new int[myStates.length * myTypes];
+        myUnhappy = new IndexedCellSet(myStates.length);
+        myReverse = new int[table.getMaxReverseNeighbors()];
+        int[] neighbors = new int[table.getMaxNeighbors()];
+        for(int loc = 0; loc < myStates.length; loc++){
+            int count = table.getNeighbors(loc / myCols, loc % myCols, neighbors);
+            for(int k = 0; k < count; k++){
+                int type = myStates[neighbors[k]];
+                if(type != 0){
+                    myOccupied[loc]++;
+                    myCounts[loc * myTypes + type]++;
+                }
+            }
+        }
+        for(int loc = 0; loc < myStates.length; loc++){
+            refresh(loc);
+        }
+    }
+
+    /**
+     * @param table
+     * @return true if the counters were built for this neighbor table
+     */
+    boolean matches(NeighborTable table){
+        return myTable == table;
+    }
+
+    /**
+     * @return locations of the unhappy agents in row major order (a copy)
+     */
+    int[] getUnhappy(){
+        int[] unhappy = new int[myUnhappy.size()];
+        for(int k = 0; k < unhappy.length; k++){
+            unhappy[k] = myUnhappy.get(k);
+        }
+        Arrays.sort(unhappy);
+        return unhappy;
+    }
+
+    boolean isUnhappy(int location){
+        return myUnhappy.contains(location);
+    }
+
+    int getState(int location){
+        return myStates[location];
+    }
+
+    /**
+     * One Segregation step: the agents unhappy when it starts move in row major order, each to a random empty location
+     * if it is still unhappy when its turn comes (SegregationCell.updateCell)
+     * @param empty empty locations, kept up to date
+     * @param random
+     * @param moves told about every move
+     */
+    void step(IndexedCellSet empty, SplittableRandom random, MoveSink moves){
+        for(int from : getUnhappy()){
+            if(empty.size() == 0){
+                return;
+            }
+            if(isUnhappy(from)){
+                int to = empty.pickRandom(random);
+                move(from, to);
+                empty.remove(to);
+                empty.add(from);
+                moves.moved(from, to);
+            }
+        }
+    }
+
+    /**
+     * Moves the agent at one location to an empty location and updates the counters around both
+     * @param from occupied location
+     * @param to empty location
+     */
+    void move(int from, int to){
+        int type = myStates[from];
+        myStates[from] = 0;
+        myStates[to] = (byte) type;
+        addNeighbor(from, type, -1);
+        addNeighbor(to, type, 1);
+        refresh(from);
+        refresh(to);
+    }
+
+    //Every cell that has the location among its neighbors gains or loses one neighbor of that type
+    private void addNeighbor(int location, int type, int amount){
+        int count = myTable.getReverseNeighbors(location, myReverse);
+        for(int k = 0; k < count; k++){
+            int cell = myReverse[k];
+            myOccupied[cell] += amount;
+            myCounts[cell * myTypes + type] += amount;
+            refresh(cell);
+        }
+    }
+
+    private void refresh(int location){
+        int type = myStates[location];
+        if(type != 0 && !SegregationCell.isSatisfied(myCounts[location * myTypes + type], myOccupied[location])){
+            myUnhappy.add(location);
+        }
+        else{
+            myUnhappy.remove(location);
+        }
+    }
+}
@@ -6,11 +6,11 @@ public class SimulationException extends RuntimeException {
         super(message);
     }
 
-    public SimulationException (String message, Object values) {
+    public SimulationException (String message, Object... values) {
         super(String.format(message, values));
     }
 
-    public SimulationException (Throwable cause, String message, Object values) {
+    public SimulationException (Throwable cause, String message, Object... values) {
         super(String.format(message, values), cause);
     }
 }
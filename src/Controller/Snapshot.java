@@ -0,0 +1,291 @@
+package Controller;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary save file for a running simulation, much smaller and faster than the CSV + properties pair
+ * Header holds the dimensions, simulation type, cell shape, edge type, neighborhood type and generation number,
+ * states follow either bit packed (1, 2, 4 or 8 bits per cell) or run length encoded, whichever is smaller
+ * Written and read in one pass through a FileChannel
+ */
+public class Snapshot {
+    public static final String EXTENSION = ".snapshot";
+
+    //"SIMS"
+    private static final int MAGIC = 0x53494D53;
+    private static final short VERSION = 1;
+    private static final byte PACKED = 0;
+    private static final byte RUN_LENGTH = 1;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_MASK = 0x7F;
+
+    private int myRows;
+    private int myCols;
+    private long myGeneration;
+    private String mySimulation;
+    private CellShape myShape;
+    private EdgeType myEdgeType;
+    private NeighborhoodType myNeighborhoodType;
+    private byte[] myStates;
+
+    private Snapshot(){
+    }
+
+    /**
+     * Writes the grid's current states and settings to a snapshot file (replacing any file already there)
+     * @param path
+     * @param grid
+     * @param simulation
+     * @param shape
+     * @param edgeType
+     * @param neighborhoodType
+     */
+    public static void write(Path path, Grid grid, String simulation, CellShape shape, EdgeType edgeType, NeighborhoodType neighborhoodType){
+        if(grid == null || simulation == null || shape == null || edgeType == null || neighborhoodType == null){
+            throw new SimulationException("Snapshot needs a grid, simulation type, shape, edge type and neighborhood type");
+        }
+        byte[] states = new byte[grid.getMyRows() * grid.getMyCols()];
+        grid.copyStates(states);
+        int maxState = 0;
+        for(byte state : states){
+            maxState = Math.max(maxState, state);
+        }
+        int bits = bitsPerState(maxState);
+        long packedSize = ((long) states.length * bits + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+        long runLengthSize = runLengthSize(states);
+        byte encoding = (runLengthSize < packedSize) ? RUN_LENGTH : PACKED;
+
+        byte[][] names = {text(simulation), text(shape.name()), text(edgeType.name()), text(neighborhoodType.name())};
+        int headerSize = Integer.BYTES + Short.BYTES + 2 * Integer.BYTES + Long.BYTES + 2;
+        for(byte[] name : names){
+            headerSize += Short.BYTES + name.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (headerSize + Math.min(packedSize, runLengthSize)));
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(grid.getMyRows()).putInt(grid.getMyCols()).putLong(grid.getGeneration());
+        for(byte[] name : names){
+            buffer.putShort((short) name.length).put(name);
+        }
+        buffer.put(encoding).put((byte) bits);
+        if(encoding == PACKED){
+            pack(states, bits, buffer);
+        }
+        else{
+            encodeRuns(states, buffer);
+        }
+        buffer.flip();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }catch(IOException e){
+            throw new SimulationException(e, "Could not write snapshot %s", path);
+        }
+    }
+
+    /**
+     * Reads a snapshot file written by write
+     * @param path
+     * @return snapshot with the saved states and settings
+     */
+    public static Snapshot read(Path path){
+        ByteBuffer buffer;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new SimulationException("Snapshot %s is too large", path);
+            }
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while(buffer.hasRemaining()){
+                if(channel.read(buffer) < 0){
+                    break;
+                }
+            }
+            buffer.flip();
+        }catch(IOException e){
+            throw new SimulationException(e, "Could not read snapshot %s", path);
+        }
+        try{
+            return decode(buffer);
+        }catch(BufferUnderflowException | IllegalArgumentException e){
+            throw new SimulationException(e, "Snapshot %s is damaged", path);
+        }
+    }
+
+    private static Snapshot decode(ByteBuffer buffer){
+        if(buffer.getInt() != MAGIC || buffer.getShort() != VERSION){
+            throw new SimulationException("Not a snapshot file (or written by a different version)");
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshot.myRows = buffer.getInt();
+        snapshot.myCols = buffer.getInt();
+        snapshot.myGeneration = buffer.getLong();
+        snapshot.mySimulation = readText(buffer);
+        snapshot.myShape = CellShape.valueOf(readText(buffer));
+        snapshot.myEdgeType = EdgeType.valueOf(readText(buffer));
+        snapshot.myNeighborhoodType = NeighborhoodType.valueOf(readText(buffer));
+        byte encoding = buffer.get();
+        int bits = buffer.get();
+        if(snapshot.myRows <= 0 || snapshot.myCols <= 0 || (long) snapshot.myRows * snapshot.myCols > Integer.MAX_VALUE){
+            throw new SimulationException("Snapshot has invalid dimensions %dx%d", snapshot.myRows, snapshot.myCols);
+        }
+        if(encoding == PACKED && (bits <= 0 || bits > BITS_PER_BYTE || BITS_PER_BYTE % bits != 0)){
+            throw new SimulationException("Snapshot has invalid bits per state %d", bits);
+        }
+        snapshot.myStates = new byte[snapshot.myRows * snapshot.myCols];
+        if(encoding == PACKED){
+            unpack(buffer, bits, snapshot.myStates);
+        }
+        else{
+            decodeRuns(buffer, snapshot.myStates);
+        }
+        return snapshot;
+    }
+
+    //1, 2, 4 or 8 bits so a state never crosses a byte boundary
+    private static int bitsPerState(int maxState){
+        int bits = 1;
+        while((1 << bits) <= maxState){
+            bits *= 2;
+        }
+        return bits;
+    }
+
+    private static void pack(byte[] states, int bits, ByteBuffer buffer){
+        int perByte = BITS_PER_BYTE / bits;
+        for(int start = 0; start < states.length; start += perByte){
+            int packed = 0;
+            int end = Math.min(states.length, start + perByte);
+            for(int k = start; k < end; k++){
+                packed |= states[k] << ((k - start) * bits);
+            }
+            buffer.put((byte) packed);
+        }
+    }
+
+    private static void unpack(ByteBuffer buffer, int bits, byte[] states){
+        int perByte = BITS_PER_BYTE / bits;
+        int mask = (1 << bits) - 1;
+        for(int start = 0; start < states.length; start += perByte){
+            int packed = buffer.get() & 0xFF;
+            int end = Math.min(states.length, start + perByte);
+            for(int k = start; k < end; k++){
+                states[k] = (byte) ((packed >> ((k - start) * bits)) & mask);
+            }
+        }
+    }
+
+    //Each run is its state followed by its length as a varint (7 bits per byte, high bit set when more bytes follow)
+    private static long runLengthSize(byte[] states){
+        long size = 0;
+        for(int start = 0; start < states.length; ){
+            int end = runEnd(states, start);
+            size += 1 + varintSize(end - start);
+            start = end;
+        }
+        return size;
+    }
+
+    private static void encodeRuns(byte[] states, ByteBuffer buffer){
+        for(int start = 0; start < states.length; ){
+            int end = runEnd(states, start);
+            buffer.put(states[start]);
+            int length = end - start;
+            while(length > VARINT_MASK){
+                buffer.put((byte) ((length & VARINT_MASK) | VARINT_MORE));
+                length >>>= VARINT_BITS;
+            }
+            buffer.put((byte) length);
+            start = end;
+        }
+    }
+
+    private static void decodeRuns(ByteBuffer buffer, byte[] states){
+        for(int start = 0; start < states.length; ){
+            byte state = buffer.get();
+            int length = 0;
+            int shift = 0;
+            int b;
+            do{
+                b = buffer.get() & 0xFF;
+                length |= (b & VARINT_MASK) << shift;
+                shift += VARINT_BITS;
+            }while((b & VARINT_MORE) != 0);
+            if(length <= 0 || length > states.length - start){
+                throw new SimulationException("Snapshot runs do not match its dimensions");
+            }
+            Arrays.fill(states, start, start + length, state);
+            start += length;
+        }
+    }
+
+    private static int runEnd(byte[] states, int start){
+        int end = start + 1;
+        while(end < states.length && states[end] == states[start]){
+            end++;
+        }
+        return end;
+    }
+
+    private static int varintSize(int value){
+        int size = 1;
+        while(value > VARINT_MASK){
+            value >>>= VARINT_BITS;
+            size++;
+        }
+        return size;
+    }
+
+    private static byte[] text(String value){
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readText(ByteBuffer buffer){
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Makes a Data object holding the saved states (to build a Grid from, the same way a CSV is loaded)
+     * @return
+     */
+    public Data getData(){
+        return new Data(myRows, myCols, myStates);
+    }
+
+    public int getMyRows(){
+        return myRows;
+    }
+
+    public int getMyCols(){
+        return myCols;
+    }
+
+    public long getGeneration(){
+        return myGeneration;
+    }
+
+    public String getSimulation(){
+        return mySimulation;
+    }
+
+    public CellShape getShape(){
+        return myShape;
+    }
+
+    public EdgeType getEdgeType(){
+        return myEdgeType;
+    }
+
+    public NeighborhoodType getNeighborhoodType(){
+        return myNeighborhoodType;
+    }
+}
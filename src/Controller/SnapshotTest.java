@@ -0,0 +1,66 @@
+package Controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+    private Path myFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        myFile = Files.createTempFile("SnapshotTest", Snapshot.EXTENSION);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(myFile);
+    }
+
+    void checkRoundTrip(Grid grid){
+        Snapshot.write(myFile, grid, "Fire", CellShape.HEXAGON, EdgeType.SEMITOROIDAL, NeighborhoodType.CARDINAL);
+        Snapshot snapshot = Snapshot.read(myFile);
+        Grid loaded = new Grid(snapshot.getData());
+
+        assertEquals("Fire", snapshot.getSimulation());
+        assertEquals(CellShape.HEXAGON, snapshot.getShape());
+        assertEquals(EdgeType.SEMITOROIDAL, snapshot.getEdgeType());
+        assertEquals(NeighborhoodType.CARDINAL, snapshot.getNeighborhoodType());
+        assertEquals(grid.getGeneration(), snapshot.getGeneration());
+        for(int i=0; i<grid.getMyRows(); i++){
+            for(int j=0; j<grid.getMyCols(); j++){
+                assertEquals(grid.getCellState(i, j), loaded.getCellState(i, j));
+            }
+        }
+    }
+
+    @Test
+    void randomGridRoundTrips(){
+        //Random states do not have long runs so these are bit packed
+        Grid grid = new Grid(new Data(new double[]{0.3, 0.4, 0.3}, 37, 37, new Random(1)));
+        grid.fillCellGrid("Fire");
+        grid.step(CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+        checkRoundTrip(grid);
+    }
+
+    @Test
+    void sparseGridRoundTrips(){
+        //Mostly empty grid is run length encoded
+        Grid grid = new Grid(new Data("Percolation_Config_5.csv"));
+        grid.updateCellState(9, 9, 2);
+        checkRoundTrip(grid);
+    }
+
+    @Test
+    void notASnapshot() throws IOException {
+        Files.write(myFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(SimulationException.class, () -> Snapshot.read(myFile));
+    }
+}
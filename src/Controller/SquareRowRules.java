@@ -0,0 +1,216 @@
+package Controller;
+
+import java.lang.reflect.Method;
+
+/**
+ * Row rules for Game of Life, Percolation and RPS on square grids
+ * Each gives exactly the same next states as the Cell rules (and RuleTable) for every state
+ * The vector versions (Controller.VectorRowRules, jdk.incubator.vector) are only compiled by the vector Maven profile
+ * and only run when the JVM is started with --add-modules jdk.incubator.vector, otherwise the scalar loops here are used
+ * Fire is not here, it only looks at its burning front (FireFront)
+ */
+final class SquareRowRules {
+    private static final String VECTOR_CLASS = "Controller.VectorRowRules";
+    private static final int MAX_COUNT = 8;
+    //Default square Game of Life rule, used for cells that are not 0 or 1 or have such a neighbor (like GameOfLifeCell)
+    private static final boolean[] DEFAULT_BORN = counts(3);
+    private static final boolean[] DEFAULT_SURVIVE = counts(2, 3);
+    private static final int RPS_THRESHOLD = 3;
+    private static final int RPS_STATES = 3;
+
+    private static Method myVectorFactory;
+    private static boolean isVectorChecked;
+
+    private SquareRowRules(){
+    }
+
+    /**
+     * Picks the row rule of a simulation type
+     * @param simType
+     * @param rule Game of Life rule, null for the default B3/S23
+     * @param offsets offsets of a cell's neighbors in a HaloRows block, in NeighborTable order
+     * @return row rule, or null if the simulation has none
+     */
+    static RowRule create(String simType, LifeRule rule, int[] offsets){
+        Method factory = vectorFactory();
+        if(factory != null){
+            try{
+                RowRule vector = (RowRule) factory.invoke(null, simType, rule, offsets);
+                if(vector != null){
+                    return vector;
+                }
+            }catch(ReflectiveOperationException | LinkageError e){
+                myVectorFactory = null;
+            }
+        }
+        return createScalar(simType, rule, offsets);
+    }
+
+    /**
+     * Same as create but never uses the vector rules (the vector rules use these for the cells past the last full vector)
+     * @param simType
+     * @param rule
+     * @param offsets
+     * @return
+     */
+    static RowRule createScalar(String simType, LifeRule rule, int[] offsets){
+        if("GAMEOFLIFE".equalsIgnoreCase(simType)){
+            return new LifeRow(born(rule), survive(rule), offsets);
+        }
+        else if("PERCOLATION".equalsIgnoreCase(simType)){
+            return new PercolationRow(offsets);
+        }
+        else if("RPS".equalsIgnoreCase(simType)){
+            return new RPSRow(offsets);
+        }
+        return null;
+    }
+
+    //Looked up once, any failure (class not compiled in, module not added) means scalar rules from then on
+    private static synchronized Method vectorFactory(){
+        if(!isVectorChecked){
+            isVectorChecked = true;
+            try{
+                myVectorFactory = Class.forName(VECTOR_CLASS).getDeclaredMethod("create", String.class, LifeRule.class, int[].class);
+            }catch(ReflectiveOperationException | LinkageError e){
+                myVectorFactory = null;
+            }
+        }
+        return myVectorFactory;
+    }
+
+    /**
+     * @param rule
+     * @return born[count] is true if a dead cell with count live neighbors comes alive
+     */
+    static boolean[] born(LifeRule rule){
+        return rule == null ? DEFAULT_BORN.clone() : counts(rule.getBorn());
+    }
+
+    /**
+     * @param rule
+     * @return survive[count] is true if a live cell with count live neighbors stays alive
+     */
+    static boolean[] survive(LifeRule rule){
+        return rule == null ? DEFAULT_SURVIVE.clone() : counts(rule.getSurvive());
+    }
+
+    //For the vector rules, which need the default rule as well
+    static boolean[] defaultBorn(){
+        return DEFAULT_BORN.clone();
+    }
+
+    static boolean[] defaultSurvive(){
+        return DEFAULT_SURVIVE.clone();
+    }
+
+    private static boolean[] counts(int... counts){
+        boolean[] table = new boolean[MAX_COUNT + 1];
+        for(int n : counts){
+            table[n] = true;
+        }
+        return table;
+    }
+
+    //Live neighbor count, cells or neighbors above 1 fall back to the default rule like the Cell rule does
+    //The next state is one lookup in [default rule?][alive?][live count], KEEP leaves a dead or odd cell as it is
+    static class LifeRow implements RowRule {
+        private static final int KEEP = -1;
+        private static final int COUNTS = MAX_COUNT + 1;
+
+        private int[] myNext = new int[4 * COUNTS];
+        private int[] myOffsets;
+
+        LifeRow(boolean[] born, boolean[] survive, int[] offsets){
+            myOffsets = offsets;
+            for(int live = 0; live < COUNTS; live++){
+                myNext[live] = born[live] ? 1 : KEEP;
+                myNext[COUNTS + live] = survive[live] ? 1 : 0;
+                myNext[2 * COUNTS + live] = DEFAULT_BORN[live] ? 1 : KEEP;
+                myNext[3 * COUNTS + live] = DEFAULT_SURVIVE[live] ? 1 : 0;
+            }
+        }
+
+        @Override
+        public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+            int shift = to - from;
+            for(int loc = from; loc < from + length; loc++){
+                int state = current[loc];
+                int live = 0;
+                boolean isOdd = state > 1;
+                for(int offset : myOffsets){
+                    int neighbor = current[loc + offset];
+                    live += (neighbor == 1) ? 1 : 0;
+                    isOdd |= neighbor > 1;
+                }
+                int entry = myNext[(isOdd ? 2 * COUNTS : 0) + (state == 1 ? COUNTS : 0) + live];
+                next[loc + shift] = (byte) (entry == KEEP ? state : entry);
+            }
+        }
+    }
+
+    //Open cells next to a percolated cell percolate
+    static class PercolationRow implements RowRule {
+        private int[] myOffsets;
+
+        PercolationRow(int[] offsets){
+            myOffsets = offsets;
+        }
+
+        @Override
+        public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+            int shift = to - from;
+            for(int loc = from; loc < from + length; loc++){
+                int state = current[loc];
+                if(state == 1){
+                    for(int offset : myOffsets){
+                        if(current[loc + offset] == 2){
+                            state = 2;
+                            break;
+                        }
+                    }
+                }
+                next[loc + shift] = (byte) state;
+            }
+        }
+    }
+
+    //Same result as the walk in RPSCell: once a state reaches the threshold each later neighbor of that state takes over,
+    //so the winner is the qualifying state (not the cell's own) whose last neighbor comes latest
+    static class RPSRow implements RowRule {
+        private int[] myOffsets;
+
+        RPSRow(int[] offsets){
+            myOffsets = offsets;
+        }
+
+        @Override
+        public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+            //One extra slot collects every state that is not rock, paper or scissors (OUTSIDE included)
+            int[] counts = new int[RPS_STATES + 1];
+            int[] last = new int[RPS_STATES + 1];
+            int shift = to - from;
+            for(int loc = from; loc < from + length; loc++){
+                int state = current[loc];
+                for(int s = 0; s <= RPS_STATES; s++){
+                    counts[s] = 0;
+                    last[s] = -1;
+                }
+                for(int k = 0; k < myOffsets.length; k++){
+                    int slot = Math.min(current[loc + myOffsets[k]] & 0xFF, RPS_STATES);
+                    counts[slot]++;
+                    last[slot] = k;
+                }
+                int result = state;
+                int latest = -1;
+                for(int s = 0; s < RPS_STATES; s++){
+                    if(s != state && counts[s] >= RPS_THRESHOLD && last[s] > latest){
+                        result = s;
+                        latest = last[s];
+                    }
+                }
+                next[loc + shift] = (byte) result;
+            }
+        }
+    }
+}
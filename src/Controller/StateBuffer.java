@@ -0,0 +1,92 @@
+package Controller;
+
+/**
+ * Double buffered cell states stored as primitive arrays (one byte per cell per buffer)
+ * Locations are flat (row * cols + col), the same as NeighborTable uses
+ * Rules read the current buffer and write the next buffer, swap() then makes next current in O(1)
+ */
+public class StateBuffer {
+    private byte[] myCurrent;
+    private byte[] myNext;
+    private int myRows;
+    private int myCols;
+
+    /**
+     * Constructor sets up both buffers with every cell in state 0
+     * @param rows
+     * @param cols
+     */
+    public StateBuffer(int rows, int cols){
+        myRows = rows;
+        myCols = cols;
+        myCurrent = new byte[rows * cols];
+        myNext = new byte[rows * cols];
+    }
+
+    /**
+     * getter
+     * @param location
+     * @return current state at location
+     */
+    public int getCurrent(int location){
+        return myCurrent[location];
+    }
+
+    /**
+     * getter
+     * @param location
+     * @return state written for the next generation at location
+     */
+    public int getNext(int location){
+        return myNext[location];
+    }
+
+    /**
+     * Sets the state this location will have after the next swap
+     * @param location
+     * @param state
+     */
+    public void setNext(int location, int state){
+        myNext[location] = (byte) state;
+    }
+
+    /**
+     * Sets both current and next state (used for loading and user clicks)
+     * @param location
+     * @param state
+     */
+    public void set(int location, int state){
+        myCurrent[location] = (byte) state;
+        myNext[location] = (byte) state;
+    }
+
+    /**
+     * Makes the next buffer the current one, old current buffer is reused for the following generation
+     */
+    public void swap(){
+        byte[] temp = myCurrent;
+        myCurrent = myNext;
+        myNext = temp;
+    }
+
+    public int getMyRows(){
+        return myRows;
+    }
+
+    public int getMyCols(){
+        return myCols;
+    }
+
+    public int size(){
+        return myCurrent.length;
+    }
+
+    //Raw arrays for step engines in the controller package (no bounds or cast overhead in their loops)
+    byte[] currentArray(){
+        return myCurrent;
+    }
+
+    byte[] nextArray(){
+        return myNext;
+    }
+}
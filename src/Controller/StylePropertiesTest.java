@@ -0,0 +1,26 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ResourceBundle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StylePropertiesTest {
+    private ResourceBundle myStyle = ResourceBundle.getBundle("Resources.Style");
+
+    //Each key on its own line, a key appended to the line before it is swallowed into that key's value
+    @Test
+    void threadsParses(){
+        var expected = 4;
+        var actual = Integer.parseInt(myStyle.getString("Threads"));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void canvasThresholdParses(){
+        var expected = 10000;
+        var actual = Integer.parseInt(myStyle.getString("CanvasThreshold"));
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,56 @@
+package Controller;
+
+/**
+ * Row rule for any simulation with a RuleTable on any cell shape, made once per (table, shape, neighborhood, row parity)
+ * The even and odd columns of a row each get their own pass with their own fixed offsets (triangles point up and down
+ * in turn), so the inner loop is one weight lookup per neighbor and one table read per cell, with no branches
+ * Cells the table has no entry for (a state outside it, order dependent results) are written as RuleTable.FALLBACK,
+ * RuleKernel runs those through the Cell rules afterwards
+ */
+class TableRowRule implements RowRule {
+    //Pushes the table index below zero whatever the other neighbors add (tables have at most 2^20 entries, 12 neighbors)
+    private static final int NOT_IN_TABLE = -(1 << 26);
+    private static final int BYTE_VALUES = 256;
+
+    private byte[] myNext;
+    //Indexed by a state's unsigned byte value
+    private int[] myBases = new int[BYTE_VALUES];
+    private int[] myWeights = new int[BYTE_VALUES];
+    private int[] myEvenOffsets;
+    private int[] myOddOffsets;
+
+    /**
+     * Constructor
+     * @param table
+     * @param evenOffsets HaloRows offsets of the row's even columns
+     * @param oddOffsets HaloRows offsets of the row's odd columns
+     */
+    TableRowRule(RuleTable table, int[] evenOffsets, int[] oddOffsets){
+        myNext = table.nextArray();
+        myEvenOffsets = evenOffsets;
+        myOddOffsets = oddOffsets;
+        for(int value = 0; value < BYTE_VALUES; value++){
+            boolean isInTable = value < table.getStates();
+            myBases[value] = isInTable ? table.getBase(value) : NOT_IN_TABLE;
+            myWeights[value] = isInTable ? table.getWeight(value) : NOT_IN_TABLE;
+        }
+        myWeights[HaloRows.OUTSIDE & 0xFF] = 0;
+    }
+
+    @Override
+    public void stepRow(byte[] current, int from, byte[] next, int to, int length){
+        stepColumns(current, from, next, to, length, 0, myEvenOffsets);
+        stepColumns(current, from, next, to, length, 1, myOddOffsets);
+    }
+
+    private void stepColumns(byte[] current, int from, byte[] next, int to, int length, int first, int[] offsets){
+        for(int k = first; k < length; k += 2){
+            int loc = from + k;
+            int index = myBases[current[loc] & 0xFF];
+            for(int offset : offsets){
+                index += myWeights[current[loc + offset] & 0xFF];
+            }
+            next[to + k] = (index < 0) ? RuleTable.FALLBACK : myNext[index];
+        }
+    }
+}
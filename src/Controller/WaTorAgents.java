@@ -0,0 +1,231 @@
+package Controller;
+
+import Model.MoveSink;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static Model.PredatorPreyCell.ENERGY;
+import static Model.PredatorPreyCell.FISH_ENERGY;
+import static Model.PredatorPreyCell.GESTATION_PERIOD;
+
+/**
+ * Predator-prey (Wa-Tor) rules of PredatorPreyCell run over a list of agents instead of a grid of Cell objects
+ * Every fish and shark is an index into primitive arrays (location, energy, reproduction time), each location
+ * remembers which agent is on it, so a generation only visits the agents and their neighbors, not the empty water
+ * Agents act once per generation in a shuffled order, newborns wait for the next generation and eaten fish
+ * are skipped, so no agent can be updated twice
+ * States other than 0 (water), 1 (fish) and 2 (shark) are kept as obstacles, nothing moves onto them
+ */
+class WaTorAgents {
+    private static final int EMPTY = 0;
+    private static final int FISH = 1;
+    private static final int SHARK = 2;
+    private static final int NO_AGENT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] myStates;
+    private int[] myAgentAt;
+    private int mySize;
+    private int[] myLocations = new int[INITIAL_CAPACITY];
+    private int[] myEnergy = new int[INITIAL_CAPACITY];
+    private int[] myReproductionTime = new int[INITIAL_CAPACITY];
+    private boolean[] isDead = new boolean[INITIAL_CAPACITY];
+    private int[] myOrder = new int[INITIAL_CAPACITY];
+    private int[] myNeighbors = new int[0];
+    private int[] myChoices = new int[0];
+    private MoveSink myMoves;
+
+    /**
+     * Constructor makes one agent for every fish and shark (reproduction time 0, energy ENERGY)
+     * @param states current state of every location, copied
+     * @param cols
+     */
+    WaTorAgents(byte[] states, int cols){
+        myStates = states.clone();
+        myAgentAt = new int[states.length];
+        Arrays.fill(myAgentAt, NO_AGENT);
+        for(int loc = 0; loc < states.length; loc++){
+            if(isAgent(states[loc])){
+                addAgent(loc);
+            }
+        }
+    }
+
+    /**
+     * Puts a new state on a location (user clicks), any agent already there is removed
+     * @param location
+     * @param state
+     */
+    void set(int location, int state){
+        if(myAgentAt[location] != NO_AGENT){
+            isDead[myAgentAt[location]] = true;
+            myAgentAt[location] = NO_AGENT;
+        }
+        myStates[location] = (byte) state;
+        if(isAgent(state)){
+            addAgent(location);
+        }
+    }
+
+    /**
+     * Runs one generation
+     * @param table neighbors to move to
+     * @param random
+     * @param moves told about every move, birth (the agent's old location) and death (from == to)
+     */
+    void step(NeighborTable table, SplittableRandom random, MoveSink moves){
+        myMoves = moves;
+        if(myNeighbors.length < table.getMaxNeighbors()){
+            myNeighbors = new int[table.getMaxNeighbors()];
+            myChoices = new int[table.getMaxNeighbors()];
+        }
+        removeDead();
+        int count = mySize;
+        if(myOrder.length < count){
+            myOrder = new int[myLocations.length];
+        }
+        for(int k = 0; k < count; k++){
+            myOrder[k] = k;
+        }
+        for(int k = count - 1; k > 0; k--){
+            int other = random.nextInt(k + 1);
+            int temp = myOrder[k];
+            myOrder[k] = myOrder[other];
+            myOrder[other] = temp;
+        }
+        for(int k = 0; k < count; k++){
+            int agent = myOrder[k];
+            if(isDead[agent]){
+                continue;
+            }
+            if(myStates[myLocations[agent]] == FISH){
+                fishUpdate(agent, table, random);
+            }
+            else{
+                sharkUpdate(agent, table, random);
+            }
+        }
+    }
+
+    /**
+     * getter
+     * @param location
+     * @return state after the last step
+     */
+    int getState(int location){
+        return myStates[location];
+    }
+
+    /**
+     * getter
+     * @return number of fish and sharks
+     */
+    int getPopulation(){
+        int population = 0;
+        for(int a = 0; a < mySize; a++){
+            population += isDead[a] ? 0 : 1;
+        }
+        return population;
+    }
+
+    //Fish move to a random empty neighbor if there is one
+    private void fishUpdate(int agent, NeighborTable table, SplittableRandom random){
+        myReproductionTime[agent]++;
+        int choices = findNeighbors(myLocations[agent], EMPTY, table);
+        if(choices > 0){
+            moveAgent(agent, myChoices[random.nextInt(choices)]);
+        }
+    }
+
+    //Sharks eat a random neighboring fish, otherwise lose energy and move to a random empty neighbor (or die)
+    private void sharkUpdate(int agent, NeighborTable table, SplittableRandom random){
+        myReproductionTime[agent]++;
+        int choices = findNeighbors(myLocations[agent], FISH, table);
+        if(choices > 0){
+            int fishLocation = myChoices[random.nextInt(choices)];
+            isDead[myAgentAt[fishLocation]] = true;
+            myEnergy[agent] += FISH_ENERGY;
+            moveAgent(agent, fishLocation);
+            return;
+        }
+        myEnergy[agent]--;
+        if(myEnergy[agent] <= 0){
+            int loc = myLocations[agent];
+            isDead[agent] = true;
+            myAgentAt[loc] = NO_AGENT;
+            myStates[loc] = EMPTY;
+            myMoves.moved(loc, loc);
+            return;
+        }
+        choices = findNeighbors(myLocations[agent], EMPTY, table);
+        if(choices > 0){
+            moveAgent(agent, myChoices[random.nextInt(choices)]);
+        }
+    }
+
+    //Neighbors in the state go into myChoices (a neighbor listed twice counts twice, like PredatorPreyCell)
+    private int findNeighbors(int location, int state, NeighborTable table){
+        int cols = table.getMyCols();
+        int count = table.getNeighbors(location / cols, location % cols, myNeighbors);
+        int choices = 0;
+        for(int k = 0; k < count; k++){
+            if(myStates[myNeighbors[k]] == state){
+                myChoices[choices++] = myNeighbors[k];
+            }
+        }
+        return choices;
+    }
+
+    //Leaves a newborn of the same kind behind once the reproduction time reaches GESTATION_PERIOD
+    private void moveAgent(int agent, int to){
+        int from = myLocations[agent];
+        myStates[to] = myStates[from];
+        myAgentAt[to] = agent;
+        myLocations[agent] = to;
+        myAgentAt[from] = NO_AGENT;
+        if(myReproductionTime[agent] >= GESTATION_PERIOD){
+            myReproductionTime[agent] = 0;
+            addAgent(from);
+        }
+        else{
+            myStates[from] = EMPTY;
+        }
+        myMoves.moved(from, to);
+    }
+
+    private void addAgent(int location){
+        if(mySize == myLocations.length){
+            myLocations = Arrays.copyOf(myLocations, mySize * 2);
+            myEnergy = Arrays.copyOf(myEnergy, mySize * 2);
+            myReproductionTime = Arrays.copyOf(myReproductionTime, mySize * 2);
+            isDead = Arrays.copyOf(isDead, mySize * 2);
+        }
+        myLocations[mySize] = location;
+        myEnergy[mySize] = ENERGY;
+        myReproductionTime[mySize] = 0;
+        isDead[mySize] = false;
+        myAgentAt[location] = mySize;
+        mySize++;
+    }
+
+    //Packs the living agents to the front so dead ones stop costing anything
+    private void removeDead(){
+        int alive = 0;
+        for(int a = 0; a < mySize; a++){
+            if(!isDead[a]){
+                myLocations[alive] = myLocations[a];
+                myEnergy[alive] = myEnergy[a];
+                myReproductionTime[alive] = myReproductionTime[a];
+                isDead[alive] = false;
+                myAgentAt[myLocations[alive]] = alive;
+                alive++;
+            }
+        }
+        mySize = alive;
+    }
+
+    private boolean isAgent(int state){
+        return state == FISH || state == SHARK;
+    }
+}
@@ -0,0 +1,95 @@
+package Controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaTorAgentsTest {
+    private NeighborTable myTable = new NeighborTable(1, 10, CellShape.SQUARE, EdgeType.FINITE, NeighborhoodType.COMPLETE);
+    private StateBuffer myStates = new StateBuffer(1, 10);
+    private ChangeList myChanges = new ChangeList(10);
+    private SplittableRandom myRandom = new SplittableRandom(4);
+
+    private WaTorAgents makeAgents(int... states){
+        for(int loc = 0; loc < states.length; loc++){
+            myStates.set(loc, states[loc]);
+        }
+        return new WaTorAgents(myStates.currentArray(), 10);
+    }
+
+    //Same bookkeeping as Grid: moves are collected, then compared against the state buffer
+    private void step(WaTorAgents agents){
+        ChangeList moves = new ChangeList(10);
+        agents.step(myTable, myRandom, (from, to) -> {
+            moves.add(from);
+            moves.add(to);
+        });
+        myChanges.clear();
+        for(int k = 0; k < moves.size(); k++){
+            int loc = moves.getLocation(k);
+            if(agents.getState(loc) != myStates.getCurrent(loc)){
+                myStates.set(loc, agents.getState(loc));
+                myChanges.add(loc);
+            }
+        }
+    }
+
+    private int findState(int state){
+        for(int loc = 0; loc < 10; loc++){
+            if(myStates.getCurrent(loc) == state){
+                return loc;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void fishMovesOnceEachGeneration(){
+        WaTorAgents agents = makeAgents(1, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        int previous = 0;
+        for(int k=0; k<5; k++){
+            step(agents);
+            int actual = findState(1);
+            assertEquals(1, Math.abs(actual - previous));
+            previous = actual;
+        }
+    }
+
+    @Test
+    void fishReproducesOnSixthMove(){
+        WaTorAgents agents = makeAgents(1, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        for(int k=0; k<5; k++){
+            step(agents);
+        }
+        assertEquals(1, agents.getPopulation());
+        step(agents);
+
+        var expected = 2;
+        var actual = agents.getPopulation();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void sharkStarvesWithoutFish(){
+        WaTorAgents agents = makeAgents(0, 0, 0, 0, 2, 0, 0, 0, 0, 0);
+        step(agents);
+        assertEquals(1, agents.getPopulation());
+        step(agents);
+
+        assertEquals(0, agents.getPopulation());
+        assertEquals(-1, findState(2));
+    }
+
+    @Test
+    void sharkEatsFish(){
+        WaTorAgents agents = makeAgents(2, 1, 3, 0, 0, 0, 0, 0, 0, 0);
+        step(agents);
+
+        assertEquals(1, agents.getPopulation());
+        assertEquals(2, myStates.getCurrent(1));
+        assertEquals(3, myStates.getCurrent(2));
+        assertEquals(2, myChanges.size());
+    }
+}
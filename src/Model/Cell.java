@@ -43,8 +43,13 @@ abstract public class Cell {
      */
     public int getMyCurrentState(){return myCurrentState;}
 
+    /**
+     * getter returns next state (read by grid after the rules run)
+     * @return
+     */
+    public int getMyNextState(){return myNextState;}
+
     //Getters and setters for variables (package private because used in concrete subclasses)
-    int getMyNextState(){return myNextState;}
     public int getMyRow() { return myRow; }
     public int getMyCol() { return myCol; }
     void setMyRow(int newRow) {this.myRow = newRow;}
@@ -62,6 +67,26 @@ abstract public class Cell {
      */
     abstract public List<Cell> updateCell(List<Cell> neighbors, Grid cellGrid, CellShape shape);
 
+    /**
+     * Neighbor histogram for the updateCell of cells that are also a CountRule
+     * @param neighbors
+     * @param states entries to make at least (more if a neighbor is in a higher state)
+     * @return counts[s] = neighbors in state s
+     */
+    protected static int[] countStates(List<Cell> neighbors, int states){
+        int size = states;
+        for(Cell c : neighbors){
+            size = Math.max(size, c.getMyCurrentState() + 1);
+        }
+        int[] counts = new int[size];
+        for(Cell c : neighbors){
+            if(c.getMyCurrentState() >= 0){
+                counts[c.getMyCurrentState()]++;
+            }
+        }
+        return counts;
+    }
+
     /**
      * Equals method checks if this cell equals another in question
      * @param o
@@ -0,0 +1,25 @@
+package Model;
+
+import Controller.CellShape;
+
+/**
+ * Allocation free form of a synchronous Cell rule (GameOfLife, Fire, Percolation, RPS)
+ * The next state only depends on the cell's state and how many neighbors are in each state,
+ * so step engines fill one reused histogram instead of building a List of neighbor Cells
+ */
+public interface CountRule {
+    /**
+     * Returned when the neighbor counts are not enough, the order of the neighbors decides (RPS with two winning enemies)
+     * and the caller has to run updateCell
+     */
+    int ORDER_DEPENDENT = -1;
+
+    /**
+     * Same result updateCell leaves in the next state of a cell whose next state equals its current state
+     * @param state current state of the cell
+     * @param counts counts[s] = neighbors in state s, at least one entry per state of the simulation (read only)
+     * @param shape
+     * @return next state or ORDER_DEPENDENT
+     */
+    int nextState(int state, int[] counts, CellShape shape);
+}
@@ -6,7 +6,9 @@ import Controller.Grid;
 import java.util.ArrayList;
 import java.util.List;
 
-public class FireCell extends Cell {
+public class FireCell extends Cell implements CountRule {
+    private static final int STATES = 3;
+
     //Neighbors only directly top/bottom and left/right
     /**
      * Super constructor used for 3 states
@@ -30,22 +32,27 @@ public class FireCell extends Cell {
     @Override
     public List<Cell> updateCell(List<Cell> neighbors, Grid cellGrid, CellShape shape) {
         List<Cell> temp = new ArrayList<>();
-        //Empty stays empty and burning goes to empty always (o/w check neighbors)
-        if(getMyCurrentState() == 1){
-            for(Cell c: neighbors){
-                if(c.getMyCurrentState() == 2){
-                    setMyNextState(2);
-                    break;
-                }
-            }
-        }
-        else{
-            setMyNextState(0);
-        }
+        setMyNextState(nextState(getMyCurrentState(), countStates(neighbors, STATES), shape));
         temp.add(this);
         return temp;
         //Grid.setCellAt(getMyRow(), getMyCol(), this);
         //cellGrid[getMyRow()][getMyCol()] = this;
         //return cellGrid;
     }
+
+    /**
+     * Rules of updateCell from the number of burning neighbors (counts[2])
+     * @param state
+     * @param counts
+     * @param shape
+     * @return
+     */
+    @Override
+    public int nextState(int state, int[] counts, CellShape shape){
+        //Empty stays empty and burning goes to empty always (o/w check neighbors)
+        if(state == 1){
+            return (counts[2] > 0) ? 2 : 1;
+        }
+        return 0;
+    }
 }
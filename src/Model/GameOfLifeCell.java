@@ -6,11 +6,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 
-public class GameOfLifeCell extends Cell {
-    //Rule numbers vary for cell shapes
-    private static final int SQUARE_REVIVE = 3;
-    private static final int SQUARE_SURVIVE1 = 2;
-    private static final int SQUARE_SURVIVE2 = 3;
+public class GameOfLifeCell extends Cell implements CountRule {
+    //Rule numbers vary for cell shapes (square ones are also used by the bit packed engine in Grid)
+    public static final int SQUARE_REVIVE = 3;
+    public static final int SQUARE_SURVIVE1 = 2;
+    public static final int SQUARE_SURVIVE2 = 3;
 
     private static final int HEX_REVIVE = 2;
     private static final int HEX_SURVIVE1 = 3;
@@ -20,6 +20,8 @@ public class GameOfLifeCell extends Cell {
     private static final int TRI_SURVIVE1 = 2;
     private static final int TRI_SURVIVE2 = 7;
 
+    private static final int STATES = 2;
+
     /**
      * Constructor uses super to set cell and states (2 possible)
      * 0 = dead; 1 = alive
@@ -44,47 +46,38 @@ public class GameOfLifeCell extends Cell {
     @Override
     public List<Cell> updateCell(List<Cell> neighbors, Grid cellGrid, CellShape shape) {
         List<Cell> temp = new ArrayList<>();
-        int liveCount = getLiveCount(neighbors);
-        if(shape == CellShape.SQUARE){
-            allUpdate(liveCount, SQUARE_REVIVE, SQUARE_SURVIVE1, SQUARE_SURVIVE2);
-        }
-        else if(shape == CellShape.HEXAGON){
-            allUpdate(liveCount, HEX_REVIVE, HEX_SURVIVE1, HEX_SURVIVE2);
-        }
-        else{
-            allUpdate(liveCount, TRI_REVIVE, TRI_SURVIVE1, TRI_SURVIVE2);
-        }
+        setMyNextState(nextState(getMyCurrentState(), countStates(neighbors, STATES), shape));
         //Set the cell at this location to this (with newly updated states)
         temp.add(this);
         return temp;
     }
 
-    private void allUpdate(int liveCount, int revive, int survive1, int survive2){
-        if(this.getMyCurrentState() == 1){
-            if(liveCount == survive1 || liveCount == survive2){
-                this.setMyNextState(1);
-            }
-            else{
-                this.setMyNextState(0);
-            }
+    /**
+     * Rules of updateCell from the number of living neighbors (counts[1])
+     * @param state
+     * @param counts
+     * @param shape
+     * @return
+     */
+    @Override
+    public int nextState(int state, int[] counts, CellShape shape){
+        int liveCount = counts[1];
+        if(shape == CellShape.SQUARE){
+            return allUpdate(state, liveCount, SQUARE_REVIVE, SQUARE_SURVIVE1, SQUARE_SURVIVE2);
+        }
+        else if(shape == CellShape.HEXAGON){
+            return allUpdate(state, liveCount, HEX_REVIVE, HEX_SURVIVE1, HEX_SURVIVE2);
         }
-        else if(liveCount == revive) {
-            this.setMyNextState(1);
+        else{
+            return allUpdate(state, liveCount, TRI_REVIVE, TRI_SURVIVE1, TRI_SURVIVE2);
         }
     }
 
-    /**
-     * Helper method gets number of living neighbor cells
-     * @param neighbors
-     * @return
-     */
-    private int getLiveCount(List<Cell> neighbors){
-        int liveCount = 0;
-        for(Cell n : neighbors){
-            if(n.getMyCurrentState() == 1){
-                liveCount++;
-            }
+    //Cells that are neither alive nor revived keep their state
+    private int allUpdate(int state, int liveCount, int revive, int survive1, int survive2){
+        if(state == 1){
+            return (liveCount == survive1 || liveCount == survive2) ? 1 : 0;
         }
-        return liveCount;
+        return (liveCount == revive) ? 1 : state;
     }
 }
@@ -113,4 +113,24 @@ class GameOfLifeCellTest {
         var actual = liveCell.getMyNextState();
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void nextStateMatchesUpdateCell(){
+        for(CellShape cellShape : CellShape.values()){
+            for(int live=0; live<=neighbors.size(); live++){
+                for(Cell cell : List.of(deadCell, liveCell)){
+                    List<Cell> neighs = new ArrayList<>();
+                    for(int k=0; k<neighbors.size(); k++){
+                        neighs.add(new GameOfLifeCell(0, 0, (k < live) ? 1 : 0, 2));
+                    }
+                    cell.setMyNextState(cell.getMyCurrentState());
+                    cell.updateCell(neighs, cellGrid, cellShape);
+
+                    var expected = cell.getMyNextState();
+                    var actual = ((CountRule) cell).nextState(cell.getMyCurrentState(), new int[]{neighbors.size() - live, live}, cellShape);
+                    assertEquals(expected, actual);
+                }
+            }
+        }
+    }
+}
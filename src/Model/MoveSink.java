@@ -0,0 +1,15 @@
+package Model;
+
+/**
+ * Where agent simulations (Segregation, PredatorPrey) report the moves of a step, as flat locations (row * cols + col)
+ * One sink is reused for every move of every step, so reporting a move allocates nothing
+ */
+@FunctionalInterface
+public interface MoveSink {
+    /**
+     * The agent at from moved to to (from now holds empty or a newborn), from == to when the agent changed in place (died)
+     * @param from
+     * @param to
+     */
+    void moved(int from, int to);
+}
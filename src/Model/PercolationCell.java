@@ -5,7 +5,9 @@ import Controller.Grid;
 import java.util.ArrayList;
 import java.util.List;
 
-public class PercolationCell extends Cell {
+public class PercolationCell extends Cell implements CountRule {
+    private static final int STATES = 3;
+
     /**
      * Constructor uses super
      * 0 = blocked; 1 = open; 2 = percolating
@@ -28,17 +30,25 @@ public class PercolationCell extends Cell {
     @Override
     public List<Cell> updateCell(List<Cell> neighbors, Grid cellGrid, CellShape shape) {
         List<Cell> temp = new ArrayList<>();
-        //Only state changes happen if current state is 1 (then check neighbors)
-        if (this.getMyCurrentState() == 1){
-            for (Cell n : neighbors){
-                if(n.getMyCurrentState() == 2){
-                    this.setMyNextState(2);
-                    temp.add(this);
-                    //cellGrid[getMyRow()][getMyCol()] = this;
-                }
-            }
+        int next = nextState(getMyCurrentState(), countStates(neighbors, STATES), shape);
+        if(next != getMyCurrentState()){
+            this.setMyNextState(next);
+            temp.add(this);
         }
         return temp;
         //return cellGrid;
     }
+
+    /**
+     * Rules of updateCell from the number of percolated neighbors (counts[2])
+     * @param state
+     * @param counts
+     * @param shape
+     * @return
+     */
+    @Override
+    public int nextState(int state, int[] counts, CellShape shape){
+        //Only state changes happen if current state is 1 (then check neighbors)
+        return (state == 1 && counts[2] > 0) ? 2 : state;
+    }
 }
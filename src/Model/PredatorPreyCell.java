@@ -5,12 +5,12 @@ import Controller.Grid;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class PredatorPreyCell extends Cell {
-    private static final int GESTATION_PERIOD = 6;
-    private static final int ENERGY = 2;
-    private static final int FISH_ENERGY = 1;
+    public static final int GESTATION_PERIOD = 6;
+    public static final int ENERGY = 2;
+    public static final int FISH_ENERGY = 1;
 
     private int myReproductionTime;
     private int myEnergyLeft;
@@ -62,7 +62,7 @@ public class PredatorPreyCell extends Cell {
         List<Cell> possNext = fillSubNeighbors(neighbors, 0);
         //Find empty surrounding neighbors and go there
         if(!possNext.isEmpty()){
-            Cell nextLoc = randDirection(possNext);
+            Cell nextLoc = randDirection(possNext, cellGrid.getRandom());
             return moveCell(nextLoc);
         }
         else{
@@ -87,7 +87,7 @@ public class PredatorPreyCell extends Cell {
 
         //Fish isn't empty -- pick random place and eat that fish
         if(!fishNear.isEmpty()){
-            Cell nextLoc = randDirection(fishNear);
+            Cell nextLoc = randDirection(fishNear, cellGrid.getRandom());
             myEnergyLeft += FISH_ENERGY;
             tempNewCells = moveCell(nextLoc);
             return tempNewCells;
@@ -102,7 +102,7 @@ public class PredatorPreyCell extends Cell {
                 return tempNewCells;
             }
             else if(!emptyNear.isEmpty()){
-                Cell nextLoc = randDirection(emptyNear);
+                Cell nextLoc = randDirection(emptyNear, cellGrid.getRandom());
                 tempNewCells = moveCell(nextLoc);
             }
         }
@@ -139,9 +139,8 @@ public class PredatorPreyCell extends Cell {
         }
     }
 
-    //Helper method randomly selects which neighboring cell to move to
-    private Cell randDirection(List<Cell> potentials){
-        Random rand = new Random();
+    //Helper method randomly selects which neighboring cell to move to (random numbers come from the grid's stream)
+    private Cell randDirection(List<Cell> potentials, SplittableRandom rand){
         int dir = rand.nextInt(potentials.size());
         return potentials.get(dir);
     }
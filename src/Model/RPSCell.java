@@ -6,8 +6,9 @@ import Controller.Grid;
 import java.util.ArrayList;
 import java.util.List;
 
-public class RPSCell extends Cell{
+public class RPSCell extends Cell implements CountRule {
     private static final int THRESHOLD = 3;
+    private static final int STATES = 3;
 
     /**
      * Constructor uses super to set cell of 1 of 3 states
@@ -32,6 +33,14 @@ public class RPSCell extends Cell{
     @Override
     public List<Cell> updateCell(List<Cell> neighbors, Grid cellGrid, CellShape shape) {
         List<Cell> tempNew = new ArrayList<>();
+        int next = nextState(getMyCurrentState(), countStates(neighbors, STATES), shape);
+        if(next != ORDER_DEPENDENT){
+            if(next != getMyCurrentState()){
+                this.setMyNextState(next);
+                tempNew.add(this);
+            }
+            return tempNew;
+        }
         //rock = index 0; paper = index 1; scissor = index 2 in nCounts array
         int[] nCounts = {0, 0, 0};
         for(Cell c: neighbors){
@@ -49,4 +58,26 @@ public class RPSCell extends Cell{
         }
         return tempNew;
     }
+
+    /**
+     * The enemy state (rock, paper or scissors, not the cell's own) with at least THRESHOLD neighbors wins,
+     * if two enemies have that many the order of the neighbors decides so the walk in updateCell has to run
+     * @param state
+     * @param counts
+     * @param shape
+     * @return
+     */
+    @Override
+    public int nextState(int state, int[] counts, CellShape shape){
+        int next = state;
+        for(int s = 0; s < STATES; s++){
+            if(s != state && counts[s] >= THRESHOLD){
+                if(next != state){
+                    return ORDER_DEPENDENT;
+                }
+                next = s;
+            }
+        }
+        return next;
+    }
 }
@@ -106,4 +106,27 @@ class RPSCellTest {
         var actual = rockCell.getMyNextState();
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void twoWinnersNeedNeighborOrder(){
+        var expected = CountRule.ORDER_DEPENDENT;
+        var actual = ((CountRule) rockCell).nextState(0, new int[]{0, 3, 4}, shape);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void twoWinnersLastOneFoundWins(){
+        //Scissors reach the threshold first, then paper does
+        for(int i=0; i<3; i++){
+            neighbors.add(scissorCell);
+        }
+        for(int i=0; i<3; i++){
+            neighbors.add(paperCell);
+        }
+        rockCell.updateCell(neighbors, cellGrid, shape);
+
+        var expected = 1;
+        var actual = rockCell.getMyNextState();
+        assertEquals(expected, actual);
+    }
+}
@@ -5,7 +5,6 @@ import Controller.Grid;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 public class SegregationCell extends Cell {
     private static final double THRESHOLD = 0.7; //70% for satisfaction = more segregation
@@ -25,6 +24,8 @@ public class SegregationCell extends Cell {
     /**
      * Implements segregation simulation rules
      * uses helper methods to determine if cell is "happy" and if not -- moves to empty location
+     * the empty location comes from the grid's index of empty cells (no scan of the grid per move),
+     * an unhappy cell stays put if there is no empty cell
      * @param neighbors
      * @param cellGrid
      * @param shape
@@ -36,8 +37,10 @@ public class SegregationCell extends Cell {
         if(this.getMyCurrentState() != 0){
             double percSame = findPercentageSame(neighbors);
             if(percSame < THRESHOLD){//this cell is unsatisfied -- moves
-                var newLoc = randomEmptyLocation(findEmptyCells(cellGrid.getMyRows(), cellGrid.getMyCols(), cellGrid));
-                Cell newCell = cellGrid.getCellAt(newLoc[0], newLoc[1]);
+                Cell newCell = cellGrid.randomEmptyCell();
+                if(newCell == null){
+                    return tempNewCells;
+                }
                 newCell.setMyCurrentState(this.getMyCurrentState());
                 newCell.setMyNextState(this.getMyNextState());
 
@@ -57,6 +60,17 @@ public class SegregationCell extends Cell {
         //return cellGrid;
     }
 
+    /**
+     * Happiness rule shared with the grid's incremental counters
+     * A cell with no occupied neighbors is satisfied (same as the NaN percentage in updateCell)
+     * @param same occupied neighbors of the same type
+     * @param occupied occupied neighbors
+     * @return
+     */
+    public static boolean isSatisfied(int same, int occupied){
+        return occupied == 0 || (double) same / occupied >= THRESHOLD;
+    }
+
     /**
      * Helper method gets number of similar neighbors
      * Used in update method to compare to threshold and determine if cell should move
@@ -76,37 +90,4 @@ public class SegregationCell extends Cell {
         }
         return same/total;
     }
-
-    /**
-     * Helper method finds empty cell location if this cell is unhappy
-     * @param rows
-     * @param cols
-     * @return
-     */
-    List<Cell> findEmptyCells(int rows, int cols, Grid cellGrid){
-        List<Cell> res = new ArrayList<>();
-        for(int i=0; i<rows; i++){
-            for(int j=0; j<cols; j++){
-                if(cellGrid.getCellAt(i, j).getMyCurrentState() == 0){
-                    res.add(cellGrid.getCellAt(i, j));
-                }
-            }
-        }
-        return res;
-    }
-
-    /**
-     * Helper method randomly selects one of the open locations found by helper method above
-     * Allows cell to randomly jump to empty locations
-     * @param possibleCells
-     * @return
-     */
-    int[] randomEmptyLocation(List<Cell> possibleCells){
-        int[] res = new int[2];
-        Random rand = new Random();
-        int dex = rand.nextInt(possibleCells.size());
-        res[0] = possibleCells.get(dex).getMyRow();
-        res[1] = possibleCells.get(dex).getMyCol();
-        return res;
-     }
-}
\ No newline at end of file
+}
@@ -83,47 +83,6 @@ class SegregationCellTest {
         assertEquals(expected, actual);
     }
 
-    @Test
-    void findEmptyCellsInGrid() {
-        happyType2andEmptysetUp();
-        //8 empty cells in this setup
-        List<Cell> empties = type1Cell.findEmptyCells(cellGrid.getMyRows(), cellGrid.getMyCols(), cellGrid);
-
-        var expected = 8;
-        var actual = empties.size();
-        assertEquals(expected, actual);
-    }
-
-    @Test
-    void randomCellSelector(){
-        happyType2andEmptysetUp();
-        //8 empty cells in this setup
-        List<Cell> empties = type1Cell.findEmptyCells(cellGrid.getMyRows(), cellGrid.getMyCols(), cellGrid);
-        int[] newLoc = type1Cell.randomEmptyLocation(empties);
-        List<Integer> possRC = new ArrayList<>();
-        for(int i=1; i<4; i++){
-            possRC.add(i);
-        }
-
-        int newR = newLoc[0];
-        int newC = newLoc[1];
-
-        assertTrue(possRC.contains(newR) && possRC.contains(newC));
-    }
-
-    @Test
-    void randomCellSelector2(){
-        happyType2andEmptysetUp();
-        //8 empty cells in this setup
-        List<Cell> empties = type1Cell.findEmptyCells(cellGrid.getMyRows(), cellGrid.getMyCols(), cellGrid);
-        int[] newLoc = type1Cell.randomEmptyLocation(empties);
-
-        int newR = newLoc[0];
-        int newC = newLoc[1];
-        //In created cellGrid -- 1,1 is a type1 cell (not empty)
-        assertTrue(!(newR == 1 && newC == 1));
-    }
-
     @Test
     void updateUnhappyType1(){
         happyType2andEmptysetUp();
@@ -156,4 +115,25 @@ class SegregationCellTest {
         assertEquals(expected2, actual2);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void unhappyStaysWithoutEmptyCells(){
+        for(int i=0; i<5; i++){
+            for(int j=0; j<5; j++){
+                cellGrid.setCellAt(i, j, new SegregationCell(i, j, 2, 3));
+            }
+        }
+        cellGrid.setCellAt(1, 1, new SegregationCell(1, 1, 1, 3));
+        for(int i=0; i<3; i++){
+            for(int j=0; j<3; j++){
+                if(i!=1 || j!= 1){
+                    neighbors.add(cellGrid.getCellAt(i, j));
+                }
+            }
+        }
+
+        var actual = cellGrid.getCellAt(1,1).updateCell(neighbors, cellGrid, shape);
+        assertTrue(actual.isEmpty());
+        assertEquals(1, cellGrid.getCellAt(1,1).getMyCurrentState());
+    }
+}
@@ -0,0 +1,196 @@
+package View;
+
+import Controller.CellShape;
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * View of the grid for large grids: every cell is painted straight into the pixels of one WritableImage
+ * so the scene only holds a single node however many cells there are
+ * Build works out which cell owns each pixel (the cell whose shape contains the pixel's center), that map
+ * gives each cell its list of pixels for painting and turns mouse clicks back into a row and column
+ * Cells smaller than a pixel may own no pixels, they are still simulated but cannot be seen or clicked
+ * Always uses colors (images need a node per cell, see NodeGridView)
+ */
+public class CanvasGridView implements GridView {
+    private static final int NO_CELL = -1;
+    private static final double PIXEL_CENTER = 0.5;
+    private static final double COLOR_CHANNEL_MAX = 255;
+
+    private Group myGroup;
+    private Map<Integer, Color> myColors;
+    private int myWidth;
+    private int myHeight;
+    private int myCols;
+    private ImageView myImageView;
+    private PixelWriter myPixelWriter;
+    private int[] myPixelOwners;
+    private int[] myPixelStarts;
+    private int[] myPixels;
+    private int[] myArgb = new int[0];
+
+    /**
+     * Constructor
+     * @param group group the image is added to
+     * @param colors read again by refreshColors
+     * @param width width in pixels of the area the grid is drawn in
+     * @param height height in pixels of the area the grid is drawn in
+     */
+    public CanvasGridView(Group group, Map<Integer, Color> colors, double width, double height){
+        myGroup = group;
+        myColors = colors;
+        myWidth = (int) width;
+        myHeight = (int) height;
+    }
+
+    @Override
+    public void build(int rows, int cols, CellShape shape, PolygonGrid polygonGrid, double cellWidth, double cellHeight,
+                      boolean useImages, BiConsumer<Integer, Integer> onClick){
+        clear();
+        myCols = cols;
+        myPixelOwners = new int[myWidth * myHeight];
+        if (shape == CellShape.HEXAGON || shape == CellShape.TRIANGLE) {
+            findPolygonOwners(rows, cols, polygonGrid);
+        }
+        else {
+            findSquareOwners(rows, cols, cellWidth, cellHeight);
+        }
+        groupPixelsByCell(rows * cols);
+        refreshColors();
+
+        WritableImage image = new WritableImage(myWidth, myHeight);
+        myPixelWriter = image.getPixelWriter();
+        myImageView = new ImageView(image);
+        myImageView.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+            int x = (int) e.getX();
+            int y = (int) e.getY();
+            if (x >= 0 && x < myWidth && y >= 0 && y < myHeight && myPixelOwners[y * myWidth + x] != NO_CELL) {
+                int location = myPixelOwners[y * myWidth + x];
+                onClick.accept(location / myCols, location % myCols);
+            }
+        });
+        myGroup.getChildren().add(myImageView);
+    }
+
+    @Override
+    public void paint(int row, int col, int state) {
+        int argb = (state < myArgb.length) ? myArgb[state] : 0;
+        int location = row * myCols + col;
+        for (int k = myPixelStarts[location]; k < myPixelStarts[location + 1]; k++) {
+            myPixelWriter.setArgb(myPixels[k] % myWidth, myPixels[k] / myWidth, argb);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (myImageView != null) {
+            myGroup.getChildren().remove(myImageView);
+            myImageView = null;
+        }
+    }
+
+    //State to ARGB lookup so painting never converts colors
+    @Override
+    public void refreshColors() {
+        int states = 0;
+        for (Integer state : myColors.keySet()) {
+            states = Math.max(states, state + 1);
+        }
+        myArgb = new int[states];
+        for (Map.Entry<Integer, Color> entry : myColors.entrySet()) {
+            myArgb[entry.getKey()] = toArgb(entry.getValue());
+        }
+    }
+
+    //Same placement as NodeGridView squares: the row picks the y position and the column picks the x position
+    private void findSquareOwners(int rows, int cols, double cellWidth, double cellHeight){
+        for (int y = 0; y < myHeight; y++) {
+            int row = (int) ((y + PIXEL_CENTER) / cellHeight);
+            for (int x = 0; x < myWidth; x++) {
+                int col = (int) ((x + PIXEL_CENTER) / cellWidth);
+                myPixelOwners[y * myWidth + x] = (row < rows && col < cols) ? row * cols + col : NO_CELL;
+            }
+        }
+    }
+
+    //Scans the bounding box of every triangle/hexagon, cells are convex so a center is inside when it is on the same side of every edge
+    private void findPolygonOwners(int rows, int cols, PolygonGrid polygonGrid){
+        Arrays.fill(myPixelOwners, NO_CELL);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                double[] points = polygonGrid.getCoordinates(i, j);
+                double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+                for (int k = 0; k < points.length; k += 2) {
+                    minX = Math.min(minX, points[k]);
+                    maxX = Math.max(maxX, points[k]);
+                    minY = Math.min(minY, points[k + 1]);
+                    maxY = Math.max(maxY, points[k + 1]);
+                }
+                int startX = Math.max(0, (int) Math.floor(minX - PIXEL_CENTER));
+                int endX = Math.min(myWidth - 1, (int) Math.ceil(maxX - PIXEL_CENTER));
+                int startY = Math.max(0, (int) Math.floor(minY - PIXEL_CENTER));
+                int endY = Math.min(myHeight - 1, (int) Math.ceil(maxY - PIXEL_CENTER));
+                for (int y = startY; y <= endY; y++) {
+                    for (int x = startX; x <= endX; x++) {
+                        if (containsPoint(points, x + PIXEL_CENTER, y + PIXEL_CENTER)) {
+                            myPixelOwners[y * myWidth + x] = i * cols + j;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean containsPoint(double[] points, double x, double y){
+        boolean anyPositive = false;
+        boolean anyNegative = false;
+        int n = points.length;
+        for (int k = 0; k < n; k += 2) {
+            double x1 = points[k];
+            double y1 = points[k + 1];
+            double x2 = points[(k + 2) % n];
+            double y2 = points[(k + 3) % n];
+            double cross = (x2 - x1) * (y - y1) - (y2 - y1) * (x - x1);
+            anyPositive |= cross > 0;
+            anyNegative |= cross < 0;
+        }
+        return !(anyPositive && anyNegative);
+    }
+
+    //Counting sort of pixels by owner, myPixels[myPixelStarts[loc] .. myPixelStarts[loc + 1]) are the pixels of loc
+    private void groupPixelsByCell(int cells){
+        myPixelStarts = new int[cells + 1];
+        int owned = 0;
+        for (int owner : myPixelOwners) {
+            if (owner != NO_CELL) {
+                myPixelStarts[owner + 1]++;
+                owned++;
+            }
+        }
+        for (int loc = 0; loc < cells; loc++) {
+            myPixelStarts[loc + 1] += myPixelStarts[loc];
+        }
+        myPixels = new int[owned];
+        int[] next = Arrays.copyOf(myPixelStarts, cells);
+        for (int p = 0; p < myPixelOwners.length; p++) {
+            if (myPixelOwners[p] != NO_CELL) {
+                myPixels[next[myPixelOwners[p]]++] = p;
+            }
+        }
+    }
+
+    private int toArgb(Color color){
+        return ((int) Math.round(color.getOpacity() * COLOR_CHANNEL_MAX) << 24)
+                | ((int) Math.round(color.getRed() * COLOR_CHANNEL_MAX) << 16)
+                | ((int) Math.round(color.getGreen() * COLOR_CHANNEL_MAX) << 8)
+                | (int) Math.round(color.getBlue() * COLOR_CHANNEL_MAX);
+    }
+}
@@ -0,0 +1,45 @@
+package View;
+
+import Controller.CellShape;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Draws the cells of the grid, Main picks an implementation based on the number of cells
+ * Views are built once per grid/shape and then only told about cells whose state changed
+ */
+public interface GridView {
+
+    /**
+     * Replaces anything drawn by an earlier build with an unpainted view of the grid
+     * @param rows
+     * @param cols
+     * @param shape
+     * @param polygonGrid coordinates of triangle and hexagon cells, not used for squares
+     * @param cellWidth
+     * @param cellHeight
+     * @param useImages
+     * @param onClick called with row and column of a clicked cell
+     */
+    void build(int rows, int cols, CellShape shape, PolygonGrid polygonGrid, double cellWidth, double cellHeight,
+               boolean useImages, BiConsumer<Integer, Integer> onClick);
+
+    /**
+     * Shows a cell in the given state
+     * @param row
+     * @param col
+     * @param state
+     */
+    void paint(int row, int col, int state);
+
+    /**
+     * Removes everything this view added to the scene
+     */
+    void clear();
+
+    /**
+     * Called when the user picks a new color, before every cell is painted again
+     */
+    default void refreshColors() {
+    }
+}
@@ -6,7 +6,6 @@ import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
 import javafx.scene.Group;
-import javafx.scene.Node;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
@@ -17,14 +16,10 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.shape.Polygon;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import javafx.stage.FileChooser;
 import javafx.event.*;
-import javafx.scene.image.ImageView;
 import java.util.*;
 import java.io.File;
 
@@ -49,6 +44,7 @@ public class Main extends Application {
     private static final double RGB_TRANSLATION = 255;
     private static final int initialStartTime = 0;
     private static final int initialEndTime = 100;
+    private static final int DEFAULT_CANVAS_THRESHOLD = 10000;
 
     private CellShape CELL_SHAPE;
     private EdgeType EDGE_TYPE;
@@ -56,7 +52,10 @@ public class Main extends Application {
 
     private Grid myGrid;
     private PolygonGrid myPolygonGrid;
-    private ArrayList<Node> AllCellViews = new ArrayList<>();
+    private GridView myGridView;
+    private NodeGridView myNodeView;
+    private CanvasGridView myCanvasView;
+    private int canvasThreshold;
     private Data mySeed;
     private Group myGroup;
     private Timeline myAnimation;
@@ -79,6 +78,7 @@ public class Main extends Application {
     private String RunSim;
     private String Time;
     private String NumCells;
+    private String AdvanceTo;
 
     private Map<Integer, Color> cellColors = new HashMap<>();
     private Map<Integer, Image> cellImages = new HashMap<>();
@@ -153,6 +153,7 @@ public class Main extends Application {
                 cellImages.put(i, image);
             }
         }
+        drawGrid();
     }
 
     /**
@@ -187,8 +188,9 @@ public class Main extends Application {
                         CELL_SHAPE = cs;
                     }
                 }
+            myGrid.useNeighborhood(CELL_SHAPE, EDGE_TYPE, NEIGHBORHOOD_TYPE);
             initializePolygonGrid();
-            colorAllCells();
+            drawGrid();
             myAnimation.play();
         });
     }
@@ -210,16 +212,21 @@ public class Main extends Application {
             showPopup("Properties file not found");
         }
         initializeGrid();
+        initializeThreads();
+        initializeCanvasThreshold();
         initializeShape();
         initializeEdge();
         initializeGUIText();
         initializeNeighbors();
         fillColorsList();
-        cellHeight = WINDOW_HEIGHT/mySeed.getHeight();
-        cellWidth = GRID_WINDOW_WIDTH/mySeed.getWidth();
+        cellHeight = (double) WINDOW_HEIGHT/mySeed.getHeight();
+        cellWidth = (double) GRID_WINDOW_WIDTH/mySeed.getWidth();
         Scene initial = new Scene(myGroup, TOTAL_WINDOW_WIDTH, WINDOW_HEIGHT, BACKGROUND);
         initializePolygonGrid();
-        colorAllCells();
+        myNodeView = new NodeGridView(myGroup, cellColors, cellImages);
+        myCanvasView = new CanvasGridView(myGroup, cellColors, GRID_WINDOW_WIDTH, WINDOW_HEIGHT);
+        myGridView = myNodeView;
+        drawGrid();
         statesGraph();
         initial.setOnKeyPressed(e -> handleKeyInput(e.getCode()));
         return initial;
@@ -230,6 +237,7 @@ public class Main extends Application {
             mySeed = new Data(myResources.getString("File"));
             myGrid = new Grid(mySeed);
             myGrid.fillCellGrid(myResources.getString("Simulation"));
+            initializeRule();
         }catch(MissingResourceException e){
             showPopup(errorResources.getString("MissingProperties"));
         }catch(SimulationException e){
@@ -237,6 +245,57 @@ public class Main extends Application {
         }
     }
 
+    private void loadSnapshot(){
+        try {
+            Snapshot snapshot = Snapshot.read(FileCreator.snapshotPath(User_File));
+            mySeed = snapshot.getData();
+            myGrid = new Grid(mySeed);
+            myGrid.fillCellGrid(snapshot.getSimulation());
+            initializeRule();
+            myGrid.setGeneration(snapshot.getGeneration());
+            CELL_SHAPE = snapshot.getShape();
+            EDGE_TYPE = snapshot.getEdgeType();
+            NEIGHBORHOOD_TYPE = snapshot.getNeighborhoodType();
+        }catch(SimulationException e){
+            showPopup(e.getMessage());
+        }
+    }
+
+    //Optional Rule key (B/S notation, ex: Rule=B36/S23) replaces the Game of Life rules,
+    //optional Seed key makes the random moves of Segregation and PredatorPrey repeatable
+    private void initializeRule(){
+        if (myResources.containsKey("Rule")) {
+            myGrid.setLifeRule(LifeRule.parse(myResources.getString("Rule")));
+        }
+        if (myResources.containsKey("Seed")) {
+            try {
+                myGrid.setSeed(Long.parseLong(myResources.getString("Seed").trim()));
+            } catch (NumberFormatException e) {
+                showPopup(errorResources.getString("SeedError"));
+            }
+        }
+    }
+
+    //Thread count is optional in the Style file, default is one thread per core
+    private void initializeThreads(){
+        try{
+            myGrid.setThreadCount(Integer.parseInt(styleResources.getString("Threads")));
+        }catch(MissingResourceException | NumberFormatException e){
+            myGrid.setThreadCount(Runtime.getRuntime().availableProcessors());
+        }catch(SimulationException e){
+            showPopup(e.getMessage());
+        }
+    }
+
+    //Grids with more cells than this are painted into one image instead of one node per cell, optional in the Style file
+    private void initializeCanvasThreshold(){
+        try{
+            canvasThreshold = Integer.parseInt(styleResources.getString("CanvasThreshold"));
+        }catch(MissingResourceException | NumberFormatException e){
+            canvasThreshold = DEFAULT_CANVAS_THRESHOLD;
+        }
+    }
+
     public void initializeGUIText(){
         try{
             User_File = textResources.getString("UserFile");
@@ -245,6 +304,7 @@ public class Main extends Application {
             RunSim = textResources.getString("RunSimulation");
             Time = textResources.getString("Time");
             NumCells = textResources.getString("NumCells");
+            AdvanceTo = textResources.getString("AdvanceTo");
         }catch(MissingResourceException e){
             showPopup(errorResources.getString("MissingProperties"));
         }
@@ -268,8 +328,8 @@ public class Main extends Application {
 
     private void initializePolygonGrid() {
         if (CELL_SHAPE == CellShape.TRIANGLE || CELL_SHAPE == CellShape.HEXAGON) {
-            myPolygonGrid = (CELL_SHAPE == CellShape.TRIANGLE) ? new TriangleGrid(GRID_WINDOW_WIDTH, WINDOW_HEIGHT, mySeed.getWidth(),
-                    mySeed.getHeight()) : new HexagonGrid(GRID_WINDOW_WIDTH, WINDOW_HEIGHT, mySeed.getWidth(), mySeed.getHeight());
+            myPolygonGrid = (CELL_SHAPE == CellShape.TRIANGLE) ? new TriangleGrid(GRID_WINDOW_WIDTH, WINDOW_HEIGHT, mySeed.getHeight(),
+                    mySeed.getWidth()) : new HexagonGrid(GRID_WINDOW_WIDTH, WINDOW_HEIGHT, mySeed.getHeight(), mySeed.getWidth());
         }
     }
 
@@ -306,12 +366,25 @@ public class Main extends Application {
     }
 
     /**
-     * Re-draws all the cells in the simulation.
+     * Makes the cell view again (cell shape, images or grid changed) and colors it.
+     * Large grids are painted into an image unless images were chosen for the states.
+     */
+    public void drawGrid() {
+        myGridView.clear();
+        boolean largeGrid = (long) myGrid.getMyRows() * myGrid.getMyCols() > canvasThreshold;
+        myGridView = (largeGrid && !useImages) ? myCanvasView : myNodeView;
+        myGridView.build(myGrid.getMyRows(), myGrid.getMyCols(), CELL_SHAPE, myPolygonGrid, cellWidth, cellHeight, useImages,
+                (row, col) -> interactiveStateChange(row, col));
+        colorAllCells();
+    }
+
+    /**
+     * Re-colors all the cells in the simulation.
      */
     public void colorAllCells() {
-        myGroup.getChildren().removeAll(AllCellViews);
-        for (int i = 0; i < mySeed.getWidth(); i++) {
-            for (int j = 0; j < mySeed.getHeight(); j++) {
+        myGridView.refreshColors();
+        for (int i = 0; i < myGrid.getMyRows(); i++) {
+            for (int j = 0; j < myGrid.getMyCols(); j++) {
                 updateCellView(i, j, myGrid.getCellState(i, j));
             }
         }
@@ -339,73 +412,35 @@ public class Main extends Application {
     }
 
     /**
-     * Redraws the cell at the row and col specified, with the image assocaited to the state specified. Provides on-click redrawing as well.
+     * Redraws the cell at the row and col specified, with the color or image associated to the state specified.
      * @param row row of cell
      * @param col col of cell
      * @param state state to draw the cell in
      */
     public void updateCellView(int row, int col, int state) {
-        Node nodeToAdd = newCellNode(row, col, state);
-        int newState = (state == possibleStates - 1) ? 0 : state + 1;
-        nodeToAdd.addEventHandler(MouseEvent.MOUSE_CLICKED,
-                e -> interactiveStateChange(row, col, newState));//System.out.println("Original state: " + state + " New state: " + newState));//updateCellView(row, col, newState));
-        myGroup.getChildren().add(nodeToAdd);
-        AllCellViews.add(nodeToAdd);
-    }
-
-    private void interactiveStateChange(int row, int col, int state) {
-        updateCellView(row, col, state);
-        myGrid.updateCellState(row, col, state);
+        myGridView.paint(row, col, state);
     }
 
-    /**
-     * constructs the appropriate JFX object in the right position to draw onto the stage
-     * @param row
-     * @param col
-     * @param state
-     * @return
-     */
-    private Node newCellNode(int row, int col, int state) {
-        Shape cellShapeView;
-        if (CELL_SHAPE == CellShape.HEXAGON || CELL_SHAPE == CellShape.TRIANGLE) {
-            cellShapeView = new Polygon(myPolygonGrid.getCoordinates(row, col));
-        }
-        else {
-            cellShapeView = new Rectangle(row * cellWidth, col * cellHeight, cellWidth, cellHeight);
-        }
-        if (useImages) {
-            ImageView cellImageView = new ImageView(cellImages.get(state));
-            cellImageView.setClip(cellShapeView);
-            return cellImageView;
-        } else {
-            var color = cellColors.get(state);
-            cellShapeView.setFill(color);
-        }
-        return cellShapeView;
+    //Clicking a cell moves it to the next state (wrapping back to 0)
+    private void interactiveStateChange(int row, int col) {
+        int state = myGrid.getCellState(row, col);
+        int newState = (state == possibleStates - 1) ? 0 : state + 1;
+        updateCellView(row, col, newState);
+        myGrid.updateCellState(row, col, newState);
     }
 
     /**
      * Main step of the animation, runs the simulation and counts the states for the live graph.
      */
     private void step() {
-        int[] stateCounts = new int[cellColors.size()];
-        // updates colors and states of all cells
-        for (int i = 0; i < myGrid.getMyRows(); i++) {
-            for (int j = 0; j < myGrid.getMyCols(); j++) {
-                //myGrid.updateGridCell(i, j);
-                myGrid.updateGridCell(i, j, CELL_SHAPE, EDGE_TYPE, NEIGHBORHOOD_TYPE);
-                //myGroup.getChildren().add(updateCellView(i, j, myGrid.getCellState(i,j)));
-            }
-        }
-        // resets state of all cells so next update will function correctly
-        for (int i = 0; i < myGrid.getMyRows(); i++) {
-            for (int j = 0; j < myGrid.getMyCols(); j++) {
-                //myGroup.getChildren().add(updateCellView(i, j, myGrid.getCellState(i,j)));
-                myGrid.resetCell(i, j);
-                updateCellView(i, j, myGrid.getCellState(i, j));
-                stateCounts[myGrid.getCellState(i, j)]++;
-            }
+        // updates states of all cells, grid swaps to the new generation itself
+        myGrid.step(CELL_SHAPE, EDGE_TYPE, NEIGHBORHOOD_TYPE);
+        // only cells that changed are repainted
+        ChangeList changed = myGrid.getChangedCells();
+        for (int k = 0; k < changed.size(); k++) {
+            updateCellView(changed.getRow(k), changed.getCol(k), myGrid.getCellState(changed.getRow(k), changed.getCol(k)));
         }
+        int[] stateCounts = myGrid.getStateCounts(cellColors.size());
         for (int i = 0; i < possibleStates; i++) {
             mySeries.get(i).getData().add(new XYChart.Data<>(currTime, stateCounts[i]));
         }
@@ -416,6 +451,34 @@ public class Main extends Application {
         }
     }
 
+    //Asks for the generation, only the cells that differ afterwards are repainted and the graph gets one point for the jump
+    private void advanceToGeneration() {
+        TextInputDialog dialog = new TextInputDialog(Long.toString(myGrid.getGeneration()));
+        dialog.setHeaderText(AdvanceTo);
+        Optional<String> answer = dialog.showAndWait();
+        if (answer.isEmpty()) {
+            return;
+        }
+        try {
+            myGrid.advanceTo(Long.parseLong(answer.get().trim()), CELL_SHAPE, EDGE_TYPE, NEIGHBORHOOD_TYPE);
+        } catch (NumberFormatException e) {
+            showPopup(String.format(errorResources.getString("GenerationError"), answer.get()));
+            return;
+        } catch (SimulationException e) {
+            showPopup(e.getMessage());
+            return;
+        }
+        ChangeList changed = myGrid.getChangedCells();
+        for (int k = 0; k < changed.size(); k++) {
+            updateCellView(changed.getRow(k), changed.getCol(k), myGrid.getCellState(changed.getRow(k), changed.getCol(k)));
+        }
+        int[] stateCounts = myGrid.getStateCounts(cellColors.size());
+        for (int i = 0; i < possibleStates; i++) {
+            mySeries.get(i).getData().add(new XYChart.Data<>(currTime, stateCounts[i]));
+        }
+        currTime++;
+    }
+
     /**
      * creates the graph that displays the change in the number of states over time
      */
@@ -475,10 +538,15 @@ public class Main extends Application {
             myStage.setScene(setupConfig(Integer.parseInt(code.getName())));
             myAnimation.play();
         }
+        // Jump straight to a later generation
+        if (code == KeyCode.G && (!isRunning)) {
+            advanceToGeneration();
+        }
         if(code == KeyCode.S){
             try{
                 FileCreator.writeCsvFile(User_File, myGrid);
-                FileCreator.writePropertiesFile(User_File, User_File,  myResources.getString("Simulation"), cellColors);
+                FileCreator.writePropertiesFile(User_File, User_File,  myResources.getString("Simulation"), cellColors, myGrid.getLifeRule());
+                FileCreator.writeSnapshotFile(User_File, myGrid, myResources.getString("Simulation"), CELL_SHAPE, EDGE_TYPE, NEIGHBORHOOD_TYPE);
             }catch(SimulationException e){
                 showPopup(e.getMessage());
             }
@@ -490,7 +558,19 @@ public class Main extends Application {
             }catch (MissingResourceException e){
                 showPopup(errorResources.getString("LoadingError"));
             }
-            initializeGrid();
+            // the snapshot also brings back the generation, shape, edge and neighborhood, but a CSV or properties
+            // file edited after the last save wins over it
+            if (FileCreator.isSnapshotCurrent(User_File)) {
+                loadSnapshot();
+            }
+            else {
+                initializeGrid();
+            }
+            initializeThreads();
+            cellHeight = (double) WINDOW_HEIGHT/mySeed.getHeight();
+            cellWidth = (double) GRID_WINDOW_WIDTH/mySeed.getWidth();
+            initializePolygonGrid();
+            drawGrid();
             myAnimation.play();
         }
     }
@@ -0,0 +1,95 @@
+package View;
+
+import Controller.CellShape;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent view of the grid with one JavaFX node per cell
+ * Nodes and their click handlers are made once in build, each generation only the fill (or image)
+ * of the cells that changed is set again
+ */
+public class NodeGridView implements GridView {
+    private Group myGroup;
+    private Group myCellGroup;
+    private Map<Integer, Color> myColors;
+    private Map<Integer, Image> myImages;
+    private Node[][] myNodes;
+    private boolean myUseImages;
+
+    /**
+     * Constructor, color and image maps are read every time a cell is painted so changes to them show on the next paint
+     * @param group group the cell nodes are added to
+     * @param colors
+     * @param images
+     */
+    public NodeGridView(Group group, Map<Integer, Color> colors, Map<Integer, Image> images){
+        myGroup = group;
+        myColors = colors;
+        myImages = images;
+    }
+
+    @Override
+    public void build(int rows, int cols, CellShape shape, PolygonGrid polygonGrid, double cellWidth, double cellHeight,
+                      boolean useImages, BiConsumer<Integer, Integer> onClick){
+        clear();
+        myUseImages = useImages;
+        myNodes = new Node[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                Shape cellShapeView;
+                if (shape == CellShape.HEXAGON || shape == CellShape.TRIANGLE) {
+                    cellShapeView = new Polygon(polygonGrid.getCoordinates(i, j));
+                }
+                else {
+                    cellShapeView = new Rectangle(j * cellWidth, i * cellHeight, cellWidth, cellHeight);
+                }
+                Node node = cellShapeView;
+                if (useImages) {
+                    ImageView cellImageView = new ImageView();
+                    cellImageView.setClip(cellShapeView);
+                    node = cellImageView;
+                }
+                final int row = i;
+                final int col = j;
+                node.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> onClick.accept(row, col));
+                myNodes[i][j] = node;
+            }
+        }
+        //Cells get a group of their own so removing them later is one remove instead of a search per node
+        myCellGroup = new Group();
+        for (Node[] nodeRow : myNodes) {
+            myCellGroup.getChildren().addAll(nodeRow);
+        }
+        myGroup.getChildren().add(myCellGroup);
+    }
+
+    @Override
+    public void paint(int row, int col, int state) {
+        if (myUseImages) {
+            ((ImageView) myNodes[row][col]).setImage(myImages.get(state));
+        }
+        else {
+            ((Shape) myNodes[row][col]).setFill(myColors.get(state));
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (myCellGroup != null) {
+            myGroup.getChildren().remove(myCellGroup);
+            myCellGroup = null;
+            myNodes = null;
+        }
+    }
+}